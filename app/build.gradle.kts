@@ -1,3 +1,9 @@
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileOutputStream
+
 plugins {
     alias(libs.plugins.android.application)
 }
@@ -29,6 +35,153 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        unitTests.all { test ->
+            // Benchmarks JMH (src/test/.../rendimiento): solo con -Pbenchmarks=true
+            test.systemProperty("benchmarks", project.findProperty("benchmarks") ?: "false")
+            test.systemProperty("benchmarks.filtro", project.findProperty("benchmarks.filtro") ?: "")
+            test.systemProperty("benchmarks.salida", layout.buildDirectory.dir("benchmarks").get().asFile.path)
+            // JMH lanza una JVM aparte por benchmark y necesita el classpath de los tests
+            test.doFirst { test.systemProperty("benchmarks.classpath", test.classpath.asPath) }
+        }
+    }
+    androidResources {
+        // escenario.bin se proyecta en memoria con openFd(): no debe ir comprimido
+        noCompress += "bin"
+    }
+}
+
+// ============================================================
+// ESCENARIO COMPILADO (alertas.json + guias.json → escenario.bin)
+// Valida los JSON en el build y genera el formato binario que lee
+// LectorEscenarioBinario (mismo formato y misma versión).
+// ============================================================
+abstract class CompilarEscenario : DefaultTask() {
+
+    @get:InputFile
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val alertas: RegularFileProperty
+
+    @get:InputFile
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val guias: RegularFileProperty
+
+    @get:OutputDirectory
+    abstract val directorioSalida: DirectoryProperty
+
+    private class Entrada(val dia: Int, val hora: String, val texto: String, val sonido: String)
+
+    @TaskAction
+    fun compilar() {
+        val listaAlertas = leer(alertas.get().asFile)
+        val listaGuias = leer(guias.get().asFile)
+        val ultimoDia = (listaAlertas + listaGuias).maxOfOrNull { it.dia } ?: 0
+
+        // Registros (dia + hora + texto + sonido) y la posición de cada uno
+        val registros = ByteArrayOutputStream()
+        val datos = DataOutputStream(registros)
+        val desplazamientos = ArrayList<Int>()
+        for (entrada in listaAlertas + listaGuias) {
+            desplazamientos.add(datos.size())
+            datos.writeInt(entrada.dia)
+            escribirTexto(datos, entrada.hora)
+            escribirTexto(datos, entrada.texto)
+            escribirTexto(datos, entrada.sonido)
+        }
+        datos.flush()
+
+        val salida = directorioSalida.get().file(ARCHIVO).asFile
+        salida.parentFile.mkdirs()
+        DataOutputStream(BufferedOutputStream(FileOutputStream(salida))).use { out ->
+            // Cabecera
+            out.writeInt(MAGIA)
+            out.writeInt(VERSION)
+            out.writeInt(ultimoDia)
+            out.writeInt(listaAlertas.size)
+            out.writeInt(listaGuias.size)
+            // Índices por día
+            indicePorDia(listaAlertas, ultimoDia).forEach { out.writeInt(it) }
+            indicePorDia(listaGuias, ultimoDia).forEach { out.writeInt(it) }
+            // Tabla de desplazamientos y registros
+            desplazamientos.forEach { out.writeInt(it) }
+            registros.writeTo(out)
+        }
+
+        logger.lifecycle("Escenario compilado: ${listaAlertas.size} alertas, ${listaGuias.size} guías, $ultimoDia días")
+    }
+
+    private fun leer(archivo: File): List<Entrada> {
+        val json = try {
+            groovy.json.JsonSlurper().parse(archivo, "UTF-8")
+        } catch (e: Exception) {
+            throw GradleException("${archivo.name}: JSON no válido (${e.message})", e)
+        }
+        val lista = json as? List<*> ?: throw GradleException("${archivo.name}: se esperaba un array de mensajes")
+
+        return lista.mapIndexed { i, elemento ->
+            val donde = "${archivo.name}[$i]"
+            val obj = elemento as? Map<*, *> ?: throw GradleException("$donde: se esperaba un objeto")
+
+            val valorDia = obj["dia"]
+            val dia = when (valorDia) {
+                is Int, is Long -> (valorDia as Number).toInt()
+                is String -> valorDia.trim().toIntOrNull()
+                else -> null
+            } ?: throw GradleException("$donde: \"dia\" debe ser un número entero")
+            if (dia < 1) throw GradleException("$donde: \"dia\" debe ser 1 o mayor (el día 0 es el mensaje fijo)")
+
+            val texto = obj["mensaje"] as? String ?: throw GradleException("$donde: falta \"mensaje\"")
+            if (texto.isBlank()) throw GradleException("$donde: \"mensaje\" está vacío")
+
+            val hora = obj["hora"]?.toString() ?: ""
+            if (hora.isNotEmpty() && !Regex("\\d{1,2}:\\d{2}").matches(hora)) {
+                throw GradleException("$donde: \"hora\" debe tener el formato HH:MM")
+            }
+
+            val sonido = obj["sonido"]?.toString() ?: "false"
+            if (sonido !in SONIDOS) throw GradleException("$donde: sonido desconocido \"$sonido\"")
+
+            Entrada(dia, hora, texto, sonido)
+        }.sortedBy { it.dia } // estable: dentro de un día se conserva el orden del JSON
+    }
+
+    // indice[d] = posición del primer mensaje con día >= d (ultimoDia + 2 entradas)
+    private fun indicePorDia(ordenadas: List<Entrada>, ultimoDia: Int): IntArray {
+        val indice = IntArray(ultimoDia + 2)
+        var posicion = 0
+        for (d in indice.indices) {
+            while (posicion < ordenadas.size && ordenadas[posicion].dia < d) posicion++
+            indice[d] = posicion
+        }
+        return indice
+    }
+
+    private fun escribirTexto(out: DataOutputStream, texto: String) {
+        val bytes = texto.toByteArray(Charsets.UTF_8)
+        out.writeInt(bytes.size)
+        out.write(bytes)
+    }
+
+    companion object {
+        const val ARCHIVO = "escenario.bin"
+        const val MAGIA = 0x41504F43 // "APOC"
+        const val VERSION = 1
+        val SONIDOS = setOf(
+            "false", "true", "alert", "alarm_short", "gremlin_risa",
+            "alien_risa", "sonido_raro", "siren_warning"
+        )
+    }
+}
+
+val compilarEscenario = tasks.register<CompilarEscenario>("compilarEscenario") {
+    alertas.set(layout.projectDirectory.file("src/main/assets/alertas.json"))
+    guias.set(layout.projectDirectory.file("src/main/assets/guias.json"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(compilarEscenario, CompilarEscenario::directorioSalida)
+    }
 }
 
 dependencies {
@@ -38,6 +191,8 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     testImplementation(libs.junit)
+    testImplementation(libs.jmh.core)
+    testAnnotationProcessor(libs.jmh.generator.annprocess)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
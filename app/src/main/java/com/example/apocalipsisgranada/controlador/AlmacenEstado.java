@@ -0,0 +1,228 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+public class AlmacenEstado {
+
+    /**
+     * Se llama en el hilo principal después de cada cambio, con lo que ha cambiado.
+     */
+    public interface Oyente {
+        void alCambiar(CambioEstado cambio);
+    }
+
+    private static final String NOMBRE_PREFS = "configuracion";
+    private static final long ESPERA_GUARDADO_MS = 250;   // cambios seguidos dentro de este margen → una sola escritura
+
+    private static volatile AlmacenEstado instancia;
+
+    // Un hilo para escribir en disco; nunca el hilo principal
+    private final ScheduledExecutorService guardado = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "guardar-estado");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // ====== CLAVES EN SHAREDPREFERENCES ("configuracion") ======
+    private static final String DIA_ACTUAL = "diaActual";
+    private static final String INDICE_MENSAJE_DIA = "indiceMensajeDia";
+    private static final String FECHA_INICIO = "fechaInicio";
+    private static final String MODO_DESARROLLADOR = "modoDesarrollador";
+    private static final String CONTADOR_TOQUES = "contadorToques";
+    private static final String NOMBRE_USUARIO = "nombreUsuario";
+    private static final String PRIMER_ARRANQUE = "primer_arranque";
+    private static final String PAQUETE_ACTIVO = "paqueteActivo";
+
+    private final SharedPreferences prefs;
+    private final AtomicReference<EstadoSimulacion> estado;
+    private final AtomicBoolean guardadoPendiente = new AtomicBoolean(false);
+
+    // Suscriptores y la pantalla de la que dependen (solo hilo principal)
+    private final Map<Oyente, Activity> oyentes = new LinkedHashMap<>();
+    private final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    private AlmacenEstado(Context aplicacion) {
+        this.prefs = aplicacion.getSharedPreferences(NOMBRE_PREFS, Context.MODE_PRIVATE);
+        this.estado = new AtomicReference<>(leerDe(prefs));
+    }
+
+    // ============================================================
+    // OBTENER EL ALMACÉN (uno por proceso; lee el disco una sola vez)
+    // ============================================================
+    public static AlmacenEstado obtener(Context context) {
+        AlmacenEstado actual = instancia;
+        if (actual != null) return actual;
+
+        synchronized (AlmacenEstado.class) {
+            if (instancia == null) {
+                Context aplicacion = context.getApplicationContext();
+                instancia = new AlmacenEstado(aplicacion);
+                // Al salir una pantalla se guarda ya lo pendiente (por si el sistema mata el proceso)
+                if (aplicacion instanceof Application) {
+                    ((Application) aplicacion).registerActivityLifecycleCallbacks(instancia.alPausar);
+                }
+            }
+            return instancia;
+        }
+    }
+
+    // ============================================================
+    // LEER Y CAMBIAR EL ESTADO (solo memoria; el disco va después)
+    // ============================================================
+    public EstadoSimulacion actual() {
+        return estado.get();
+    }
+
+    /**
+     * Aplica el cambio de forma atómica (si otro hilo cambió el estado a la vez,
+     * se vuelve a aplicar sobre el nuevo) y programa el guardado.
+     */
+    public EstadoSimulacion actualizar(UnaryOperator<EstadoSimulacion> cambio) {
+        EstadoSimulacion anterior;
+        EstadoSimulacion nuevo;
+        do {
+            anterior = estado.get();
+            nuevo = cambio.apply(anterior);
+        } while (!estado.compareAndSet(anterior, nuevo));
+
+        if (nuevo != anterior) {   // sin cambios (mismo objeto): ni guardar ni avisar
+            programarGuardado();
+            avisar(new CambioEstado(anterior, nuevo));
+        }
+        return nuevo;
+    }
+
+    // ============================================================
+    // SUSCRIPCIÓN A CAMBIOS
+    // Cada pantalla (y su cabecera) aplica solo lo que cambió; la suscripción
+    // se quita sola cuando la pantalla se destruye
+    // ============================================================
+    public void observar(Activity pantalla, Oyente oyente) {
+        oyentes.put(oyente, pantalla);
+    }
+
+    public void dejarDeObservar(Oyente oyente) {
+        oyentes.remove(oyente);
+    }
+
+    private void avisar(CambioEstado cambio) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            hiloPrincipal.post(() -> avisar(cambio));
+            return;
+        }
+        // Copia: un oyente puede suscribir o quitar a otros mientras se avisa
+        List<Oyente> aAvisar = new ArrayList<>(oyentes.keySet());
+        for (int i = 0; i < aAvisar.size(); i++) {
+            if (oyentes.containsKey(aAvisar.get(i))) aAvisar.get(i).alCambiar(cambio);
+        }
+    }
+
+    /**
+     * Escribe ya lo pendiente, sin esperar al margen (en el hilo de guardado).
+     */
+    public void guardarYa() {
+        if (guardadoPendiente.get()) guardado.execute(this::escribir);
+    }
+
+    // ============================================================
+    // GUARDADO AGRUPADO EN SEGUNDO PLANO
+    // ============================================================
+    private void programarGuardado() {
+        // Si ya hay un guardado en camino, este cambio viajará con él
+        if (guardadoPendiente.compareAndSet(false, true)) {
+            guardado.schedule(this::escribir, ESPERA_GUARDADO_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void escribir() {
+        if (!guardadoPendiente.getAndSet(false)) return;   // ya lo escribió otra tarea
+
+        // Se escribe la última foto: todos los cambios acumulados de una vez
+        SharedPreferences.Editor editor = prefs.edit();
+        guardarEn(estado.get(), editor);
+        editor.commit();   // síncrono, pero en el hilo de guardado
+    }
+
+    // ============================================================
+    // LECTURA / ESCRITURA EN SHAREDPREFERENCES
+    // (EstadoSimulacion es Java puro: las claves solo están aquí)
+    // ============================================================
+    private static EstadoSimulacion leerDe(SharedPreferences prefs) {
+        EstadoSimulacion inicial = EstadoSimulacion.INICIAL;
+        return new EstadoSimulacion(
+                prefs.getInt(DIA_ACTUAL, inicial.getDiaActual()),
+                prefs.getInt(INDICE_MENSAJE_DIA, inicial.getIndiceMensajeDia()),
+                prefs.getLong(FECHA_INICIO, inicial.getFechaInicio()),
+                prefs.getBoolean(MODO_DESARROLLADOR, inicial.isModoDesarrollador()),
+                prefs.getInt(CONTADOR_TOQUES, inicial.getContadorToques()),
+                prefs.getString(NOMBRE_USUARIO, inicial.getNombreUsuario()),
+                prefs.getBoolean(PRIMER_ARRANQUE, inicial.isPrimerArranque()),
+                prefs.getString(PAQUETE_ACTIVO, inicial.getPaqueteActivo()));
+    }
+
+    private static void guardarEn(EstadoSimulacion foto, SharedPreferences.Editor editor) {
+        editor.putInt(DIA_ACTUAL, foto.getDiaActual())
+                .putInt(INDICE_MENSAJE_DIA, foto.getIndiceMensajeDia())
+                .putLong(FECHA_INICIO, foto.getFechaInicio())
+                .putBoolean(MODO_DESARROLLADOR, foto.isModoDesarrollador())
+                .putInt(CONTADOR_TOQUES, foto.getContadorToques())
+                .putString(NOMBRE_USUARIO, foto.getNombreUsuario())
+                .putBoolean(PRIMER_ARRANQUE, foto.isPrimerArranque())
+                .putString(PAQUETE_ACTIVO, foto.getPaqueteActivo());
+    }
+
+    private final Application.ActivityLifecycleCallbacks alPausar = new Application.ActivityLifecycleCallbacks() {
+        @Override public void onActivityPaused(Activity activity) { guardarYa(); }
+        @Override public void onActivityCreated(Activity activity, Bundle estadoGuardado) {}
+        @Override public void onActivityStarted(Activity activity) {}
+        @Override public void onActivityResumed(Activity activity) {}
+        @Override public void onActivityStopped(Activity activity) {}
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle estadoSalida) {}
+        @Override public void onActivityDestroyed(Activity activity) { oyentes.values().removeIf(p -> p == activity); }
+    };
+}
+
+/**
+ * ============================================================
+ * 🗄️ Clase: AlmacenEstado.java
+ * ============================================================
+ *
+ * **Único dueño del estado de la simulación** mientras la app está abierta.
+ *
+ * Antes cada método abría `SharedPreferences("configuracion")` y leía
+ * las claves una a una, y `Preferencias` hacía `commit()` síncronos
+ * (a veces en el hilo principal). Ahora:
+ *
+ *  - El archivo se lee **una vez** y el estado vive en memoria como un
+ *    `EstadoSimulacion` inmutable dentro de un `AtomicReference`.
+ *  - `actualizar(e -> e.conPosicion(...))` cambia el estado de forma atómica.
+ *  - Los cambios se **agrupan**: el primero programa una escritura en
+ *    `ESPERA_GUARDADO_MS`; los que llegan antes viajan en la misma.
+ *  - La escritura se hace en el hilo "guardar-estado", nunca en el principal.
+ *  - Al pausar cualquier pantalla se guarda ya lo pendiente.
+ *  - Las pantallas se suscriben con `observar()` y reciben un `CambioEstado`
+ *    (avance con el delta de pares, reinicio, modo, usuario) en el hilo
+ *    principal, estén delante o no. Al destruirse, la suscripción se quita sola.
+ *
+ * Así, avanzar o reiniciar cuesta un cambio en memoria, no varias
+ * escrituras en disco.
+ *
+ * ============================================================
+ */
@@ -0,0 +1,104 @@
+package com.example.apocalipsisgranada.controlador;
+
+import java.util.Objects;
+
+public final class CambioEstado {
+
+    private final EstadoSimulacion anterior;
+    private final EstadoSimulacion actual;
+
+    CambioEstado(EstadoSimulacion anterior, EstadoSimulacion actual) {
+        this.anterior = anterior;
+        this.actual = actual;
+    }
+
+    // ====== GETTERS ======
+    public EstadoSimulacion getAnterior() { return anterior; }
+    public EstadoSimulacion getActual() { return actual; }
+
+    // ============================================================
+    // QUÉ HA CAMBIADO
+    // ============================================================
+
+    /**
+     * Se empezó de nuevo: otra fecha de inicio, otro paquete o la posición fue hacia atrás.
+     * Lo mostrado ya no sirve y hay que pintarlo desde cero.
+     */
+    public boolean esReinicio() {
+        return actual.getFechaInicio() != anterior.getFechaInicio()
+                || !actual.getPaqueteActivo().equals(anterior.getPaqueteActivo())
+                || comparaPosicion() < 0;
+    }
+
+    /**
+     * Se desbloquearon pares nuevos: los que van justo después de (diaDesde, indiceDesde)
+     * hasta (diaHasta, indiceHasta), ambos incluidos.
+     */
+    public boolean esAvance() {
+        return !esReinicio() && comparaPosicion() > 0;
+    }
+
+    public boolean cambioPosicion() {
+        return esAvance() || esReinicio();
+    }
+
+    public boolean cambioDia() {
+        return actual.getDiaActual() != anterior.getDiaActual() || esReinicio();
+    }
+
+    public boolean cambioModo() {
+        return actual.isModoDesarrollador() != anterior.isModoDesarrollador();
+    }
+
+    public boolean cambioUsuario() {
+        return !Objects.equals(actual.getNombreUsuario(), anterior.getNombreUsuario());
+    }
+
+    // ====== DELTA DE UN AVANCE ======
+    public int getDiaDesde() { return anterior.getDiaActual(); }
+    public int getIndiceDesde() { return anterior.getIndiceMensajeDia(); }
+    public int getDiaHasta() { return actual.getDiaActual(); }
+    public int getIndiceHasta() { return actual.getIndiceMensajeDia(); }
+
+    private int comparaPosicion() {
+        if (actual.getDiaActual() != anterior.getDiaActual()) {
+            return Integer.compare(actual.getDiaActual(), anterior.getDiaActual());
+        }
+        return Integer.compare(actual.getIndiceMensajeDia(), anterior.getIndiceMensajeDia());
+    }
+
+    @Override
+    public String toString() {
+        if (esReinicio()) return "reinicio → día " + getDiaHasta();
+        if (esAvance()) {
+            return "pares (" + getDiaDesde() + "," + getIndiceDesde() + "] → (" + getDiaHasta() + "," + getIndiceHasta() + "]";
+        }
+        return "sin cambio de posición";
+    }
+}
+
+/**
+ * ============================================================
+ * 🔔 Clase: CambioEstado.java
+ * ============================================================
+ *
+ * Describe **qué cambió** entre dos fotos del estado de la simulación.
+ * Es lo que reciben las pantallas suscritas a `AlmacenEstado`.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - `esAvance()` → se desbloquearon pares nuevos; el delta va de
+ *    (`diaDesde`, `indiceDesde`) a (`diaHasta`, `indiceHasta`).
+ *    La pantalla inserta solo esos.
+ *  - `esReinicio()` → día 1 otra vez, otra fecha de inicio u otro paquete:
+ *    se pinta desde cero.
+ *  - `cambioDia()`, `cambioModo()`, `cambioUsuario()` → para quien solo
+ *    depende del día (guía, historial), del modo (colores) o del nombre (saludo).
+ *
+ * Un cambio sin nada de esto (por ejemplo, el contador de toques del escudo)
+ * no obliga a nadie a repintar.
+ *
+ * ============================================================
+ */
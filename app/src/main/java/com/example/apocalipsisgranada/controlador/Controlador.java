@@ -1,33 +1,21 @@
 package com.example.apocalipsisgranada.controlador;
 
 import android.app.Activity;
-import android.app.NotificationChannel;
-import android.app.NotificationManager;
+import android.app.AlertDialog;
 import android.content.Context;
-import android.content.Intent;
-import android.content.SharedPreferences;
-import android.hardware.camera2.CameraManager;
-import android.media.MediaPlayer;
-import android.os.Build;
+import android.text.InputType;
+import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.LinearLayout;
 import android.widget.Toast;
 
-import androidx.core.app.NotificationCompat;
-
 import com.example.apocalipsisgranada.R;
 import com.example.apocalipsisgranada.modelo.Mensaje;
-import com.example.apocalipsisgranada.vista.ManejadorVistas;
-import com.example.apocalipsisgranada.vista.VistaGuia;
-import com.example.apocalipsisgranada.vista.VistaHistorial;
-import com.example.apocalipsisgranada.vista.VistaPrincipal;
-
-import org.json.JSONArray;
-import org.json.JSONObject;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class Controlador {
 
@@ -38,121 +26,149 @@ public class Controlador {
     // CONFIGURAR MODO DESARROLLADOR
     // ============================================================
     public static void configurarModoDesarrolladorComun(Activity activity) {
-        SharedPreferences prefs = activity.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-        boolean modoDev = prefs.getBoolean("modoDesarrollador", false);
+        AlmacenEstado almacen = AlmacenEstado.obtener(activity);
 
         activity.findViewById(R.id.escudo).setOnClickListener(v -> {
-            int toques = prefs.getInt("contadorToques", 0) + 1;
+            int toques = almacen.actualizar(e -> e.conContadorToques(e.getContadorToques() + 1)).getContadorToques();
             if (toques >= TOQUES_DESARROLLADOR) {
-                boolean nuevoModo = !modoDev;
-                prefs.edit()
-                        .putBoolean("modoDesarrollador", nuevoModo)
-                        .putInt("contadorToques", 0)
-                        .apply();
+                boolean nuevoModo = almacen.actualizar(e -> e
+                        .conModoDesarrollador(!e.isModoDesarrollador())
+                        .conContadorToques(0)).isModoDesarrollador();
 
                 Toast.makeText(activity,
                         nuevoModo ? "🔧 Modo desarrollador ACTIVADO" : "Modo desarrollador DESACTIVADO",
                         Toast.LENGTH_SHORT).show();
-
-                Intent intent = activity.getIntent();
-                activity.finish();
-                activity.overridePendingTransition(0, 0);
-                activity.startActivity(intent);
-                activity.overridePendingTransition(0, 0);
-            } else {
-                prefs.edit().putInt("contadorToques", toques).apply();
+                // Colores, escudo, franja y botones los repinta la cabecera suscrita (ManejadorVistas)
             }
         });
-
-        // Botones de avance y reinicio
-        if (activity.findViewById(R.id.botonAvanzar) != null)
-            activity.findViewById(R.id.botonAvanzar)
-                    .setOnClickListener(v -> avanzarDiaComun(activity));
-
-        if (activity.findViewById(R.id.botonReiniciar) != null)
-            activity.findViewById(R.id.botonReiniciar)
-                    .setOnClickListener(v -> reiniciarSimulacionComun(activity));
     }
 
     // ============================================================
     // FECHAS Y DÍAS
     // ============================================================
-    public static String obtenerFechaSimulada(SharedPreferences prefs, int dia) {
-        long fechaInicio = prefs.getLong("fechaInicio", 0);
+    public static String obtenerFechaSimulada(Context context, int dia) {
+        // Cada día se formatea una sola vez (ver EtiquetasFecha)
+        return EtiquetasFecha.etiqueta(obtenerFechaInicio(context), dia);
+    }
+
+    public static long obtenerFechaInicio(Context context) {
+        AlmacenEstado almacen = AlmacenEstado.obtener(context);
+        long fechaInicio = almacen.actual().getFechaInicio();
         if (fechaInicio == 0) {
-            fechaInicio = System.currentTimeMillis();
-            prefs.edit().putLong("fechaInicio", fechaInicio).apply();
+            long ahora = System.currentTimeMillis();
+            fechaInicio = almacen.actualizar(e -> e.getFechaInicio() == 0 ? e.conFechaInicio(ahora) : e).getFechaInicio();
         }
-        long fechaSimulada = fechaInicio + (long) (dia - 1) * 24 * 60 * 60 * 1000;
-        java.text.SimpleDateFormat formato =
-                new java.text.SimpleDateFormat("EEEE, d 'de' MMMM 'de' yyyy", new java.util.Locale("es", "ES"));
-        return formato.format(new java.util.Date(fechaSimulada));
+        return fechaInicio;
     }
 
     // ============================================================
     // AVANZAR DÍA
     // ============================================================
     public static void avanzarDiaComun(Activity activity) {
-        SharedPreferences prefs = activity.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-        int diaActual = prefs.getInt("diaActual", 1);
-        int indice = prefs.getInt("indiceMensajeDia", 0);
-
-        // Comprobamos cuántos pares hay en el día actual
-        int totalPares = contarMensajesDelDia(activity, diaActual);
-
-        if (indice < totalPares - 1) {
-            // Quedan más mensajes del mismo día
-            indice++;
-            prefs.edit().putInt("indiceMensajeDia", indice).apply();
-        } else {
-            // Ya se mostraron todos los mensajes de ese día → pasar al siguiente
-            diaActual++;
-            indice = 0;
-            prefs.edit()
-                    .putInt("diaActual", diaActual)
-                    .putInt("indiceMensajeDia", 0)
-                    .apply();
-        }
+        MonitorFotogramas.marcarAccion(MonitorFotogramas.AVANZAR);
+        conMotor(activity, motor -> {
+            if (activity.isDestroyed()) return;
+            long inicio = Metricas.empezar(Metricas.AVANZAR);
+            try {
+                AlmacenEstado almacen = AlmacenEstado.obtener(activity);
 
-        Toast.makeText(activity, "Avanzaste al día " + diaActual, Toast.LENGTH_SHORT).show();
+                // Un solo cambio atómico en memoria (se guarda en disco después, en segundo plano)
+                EstadoSimulacion estado = almacen.actualizar(motor::siguiente);
+                int diaActual = estado.getDiaActual();
 
-        procesarAlertasDelDia(activity, diaActual);
+                Toast.makeText(activity, "Avanzaste al día " + diaActual, Toast.LENGTH_SHORT).show();
 
-        // Actualizar la vista correspondiente
-        if (activity instanceof VistaPrincipal)
-            ((VistaPrincipal) activity).mostrarMensajesIniciales();
-        else if (activity instanceof VistaGuia)
-            ((VistaGuia) activity).actualizarGuias();
-        else if (activity instanceof VistaHistorial)
-            ((VistaHistorial) activity).actualizarHistorial();
+                ejecutarComandos(activity, motor.efectos(estado, horaReal()));
 
-        // Actualizar visual
-        ManejadorVistas.actualizarCabecera(activity, obtenerFechaSimulada(prefs, diaActual));
-        ManejadorVistas.mostrarTextoModoDesarrollador(activity, diaActual);
-        ManejadorVistas.actualizarColoresModoDesarrollador(activity);
+                // Las pantallas ya se han actualizado al avisarles AlmacenEstado
+                Precargador.programar(activity);
+            } finally {
+                Metricas.terminar(Metricas.AVANZAR, inicio);
+            }
+        });
     }
 
-    private static int contarMensajesDelDia(Context context, int diaBuscado) {
-        try {
-            InputStream is = context.getAssets().open("alertas.json");
-            byte[] buffer = new byte[is.available()];
-            is.read(buffer);
-            is.close();
-
-            String json = new String(buffer, StandardCharsets.UTF_8);
-            JSONArray array = new JSONArray(json);
-
-            int contador = 0;
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                if (obj.getInt("dia") == diaBuscado)
-                    contador++;
-            }
+    // ============================================================
+    // AVANZAR VARIOS PASOS / SALTAR A UN DÍA (modo desarrollador)
+    // Un solo cambio de estado, un solo guardado y un solo refresco;
+    // las alertas del camino no suenan ni se notifican una a una
+    // ============================================================
+    public static void avanzarVarios(Activity activity, int pasos, MotorSimulacion.Intermedias politica) {
+        conMotor(activity, motor -> {
+            int hora = horaReal();
+            aplicarSalto(activity, e -> motor.avanzarVarios(e, pasos, hora, politica));
+        });
+    }
 
-            return contador;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 1;
+    public static void saltarADia(Activity activity, int dia, MotorSimulacion.Intermedias politica) {
+        conMotor(activity, motor -> {
+            int hora = horaReal();
+            aplicarSalto(activity, e -> motor.saltarADia(e, dia, hora, politica));
+        });
+    }
+
+    private static void aplicarSalto(Activity activity, Function<EstadoSimulacion, MotorSimulacion.Paso> salto) {
+        if (activity.isDestroyed()) return;
+        MonitorFotogramas.marcarAccion(MonitorFotogramas.SALTO);
+        MotorSimulacion.Paso[] resultado = new MotorSimulacion.Paso[1];
+        EstadoSimulacion estado = AlmacenEstado.obtener(activity).actualizar(e -> {
+            resultado[0] = salto.apply(e);
+            return resultado[0].getEstado();
+        });
+        int diaActual = estado.getDiaActual();
+
+        Toast.makeText(activity, "Saltaste al día " + diaActual, Toast.LENGTH_SHORT).show();
+        ejecutarComandos(activity, resultado[0].getComandos());
+        Precargador.programar(activity);
+    }
+
+    public static void mostrarDialogoSalto(Activity activity) {
+        // El último día sale del catálogo: si aún se está leyendo, el diálogo se abre al terminar
+        GestorEscenario.cargarEnSegundoPlano(activity, catalogo -> {
+            if (!activity.isDestroyed()) mostrarDialogoSalto(activity, catalogo.getUltimoDia());
+        });
+    }
+
+    private static void mostrarDialogoSalto(Activity activity, int ultimoDia) {
+
+        EditText campo = new EditText(activity);
+        campo.setInputType(InputType.TYPE_CLASS_NUMBER);
+        campo.setHint("Día (1–" + ultimoDia + ") o número de pasos");
+
+        CheckBox resumir = new CheckBox(activity);
+        resumir.setText("Resumir en una notificación las alertas saltadas");
+
+        LinearLayout contenido = new LinearLayout(activity);
+        contenido.setOrientation(LinearLayout.VERTICAL);
+        int margen = (int) (20 * activity.getResources().getDisplayMetrics().density);
+        contenido.setPadding(margen, margen / 2, margen, 0);
+        contenido.addView(campo);
+        contenido.addView(resumir);
+
+        new AlertDialog.Builder(activity)
+                .setTitle("⏩ Saltar en la simulación")
+                .setView(contenido)
+                .setPositiveButton("Ir al día", (dialogo, boton) -> {
+                    int numero = leerNumero(campo);
+                    if (numero > 0) saltarADia(activity, numero, politica(resumir));
+                })
+                .setNeutralButton("Avanzar pasos", (dialogo, boton) -> {
+                    int numero = leerNumero(campo);
+                    if (numero > 0) avanzarVarios(activity, numero, politica(resumir));
+                })
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
+    private static MotorSimulacion.Intermedias politica(CheckBox resumir) {
+        return resumir.isChecked() ? MotorSimulacion.Intermedias.AGRUPAR : MotorSimulacion.Intermedias.SUPRIMIR;
+    }
+
+    private static int leerNumero(EditText campo) {
+        try {
+            return Integer.parseInt(campo.getText().toString().trim());
+        } catch (NumberFormatException e) {
+            return 0;
         }
     }
 
@@ -162,169 +178,138 @@ public class Controlador {
     public static void reiniciarSimulacionComun(Activity activity) {
         if (enReinicio) return;
         enReinicio = true;
+        MonitorFotogramas.marcarAccion(MonitorFotogramas.REINICIAR);
 
-        SharedPreferences prefs = activity.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-        boolean modoDev = prefs.getBoolean("modoDesarrollador", false);
+        AlmacenEstado almacen = AlmacenEstado.obtener(activity);
+        boolean modoDev = almacen.actual().isModoDesarrollador();
         Preferencias.reiniciarSimulacion(activity, modoDev);
 
         Toast.makeText(activity, "Reiniciado al día 1", Toast.LENGTH_SHORT).show();
-
-        if (activity instanceof VistaPrincipal)
-            ((VistaPrincipal) activity).mostrarMensajesIniciales();
-        else if (activity instanceof VistaGuia)
-            ((VistaGuia) activity).actualizarGuias();
-        else if (activity instanceof VistaHistorial)
-            ((VistaHistorial) activity).actualizarHistorial();
-
-        int diaActual = prefs.getInt("diaActual", 1);
-        ManejadorVistas.actualizarCabecera(activity, obtenerFechaSimulada(prefs, diaActual));
-        ManejadorVistas.mostrarTextoModoDesarrollador(activity, diaActual);
+        Precargador.programar(activity);
 
         enReinicio = false;
     }
 
     // ============================================================
-    // NOTIFICACIONES Y SONIDOS
+    // CAMBIAR DE PAQUETE DE ESCENARIO
     // ============================================================
-    public static void procesarAlertasDelDia(Context context, int diaActual) {
-        SharedPreferences prefs = context.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-
-        try {
-            InputStream is = context.getAssets().open("alertas.json");
-            byte[] buffer = new byte[is.available()];
-            is.read(buffer);
-            is.close();
-
-            String json = new String(buffer, StandardCharsets.UTF_8);
-            JSONArray array = new JSONArray(json);
-
-            // Recuperamos el índice actual
-            int indice = prefs.getInt("indiceMensajeDia", 0);
-
-            // Creamos una lista con las alertas del día actual
-            List<JSONObject> alertasDelDia = new ArrayList<>();
-
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                if (obj.getInt("dia") == diaActual) {
-                    alertasDelDia.add(obj);
-                }
+    public static void mostrarSelectorPaquetes(Activity activity) {
+        // Primero se instalan los .zip que se hayan copiado (en segundo plano)
+        // (la lista de paquetes también se lee allí, no en el hilo principal)
+        GestorPaquetes.instalarPendientes(activity, paquetes -> {
+            if (activity.isDestroyed()) return;
+
+            String activo = AlmacenEstado.obtener(activity).actual().getPaqueteActivo();
+            String[] nombres = new String[paquetes.size()];
+            for (int i = 0; i < nombres.length; i++) {
+                PaqueteEscenario paquete = paquetes.get(i);
+                nombres[i] = (paquete.getId().equals(activo) ? "▶ " : "") + paquete.getNombre()
+                        + (paquete.getDescripcion().isEmpty() ? "" : "\n" + paquete.getDescripcion());
             }
 
-            // Si hay alertas y el índice es válido, mostramos solo la que toca
-            if (indice < alertasDelDia.size()) {
-                JSONObject obj = alertasDelDia.get(indice);
-
-                Mensaje mensaje = new Mensaje(
-                        diaActual,
-                        obtenerFechaSimulada(prefs, diaActual),
-                        obj.getString("mensaje"),
-                        obj.optString("sonido", "false"),
-                        "alerta"
-                );
+            new AlertDialog.Builder(activity)
+                    .setTitle("📚 Elegir historia")
+                    .setItems(nombres, (dialogo, posicion) -> cambiarPaquete(activity, paquetes.get(posicion)))
+                    .setNegativeButton("Cancelar", null)
+                    .show();
+        });
+    }
 
-                reproducirSonido(context, mensaje);
-                mostrarNotificacion(context, mensaje);
+    /**
+     * Empieza la historia elegida desde el día 1. Primero se lee su catálogo (o se toma
+     * del LRU) en segundo plano; el estado cambia después, cuando las pantallas suscritas
+     * ya pueden repintarse con él sin esperar.
+     */
+    public static void cambiarPaquete(Activity activity, PaqueteEscenario paquete) {
+        AlmacenEstado almacen = AlmacenEstado.obtener(activity);
+        if (paquete.getId().equals(almacen.actual().getPaqueteActivo())) return;
+
+        GestorEscenario.prepararPaquete(activity, paquete.getId(), catalogo -> {
+            MonitorFotogramas.marcarAccion(MonitorFotogramas.PAQUETE);
+            long ahora = System.currentTimeMillis();
+            almacen.actualizar(e ->
+                    MotorSimulacion.reiniciar(e.conPaqueteActivo(paquete.getId()), e.isModoDesarrollador(), ahora));
+            EtiquetasFecha.invalidar();
+
+            if (!activity.isDestroyed()) {
+                Toast.makeText(activity, "Historia: " + paquete.getNombre(), Toast.LENGTH_SHORT).show();
             }
+            Precargador.programar(activity);
+        });
+    }
 
-            // Linterna SOS solo si es el final del día 14
-            if (diaActual == 14 && indice == alertasDelDia.size() - 1) {
-                Calendar calendario = Calendar.getInstance();
-                int hora = calendario.get(Calendar.HOUR_OF_DAY);
-                if (hora == 23) {
-                    activarLinternaSOS(context);
+    // ============================================================
+    // NOTIFICACIONES Y SONIDOS
+    // ============================================================
+    public static void procesarAlertasDelDia(Context context, int diaActual) {
+        EstadoSimulacion estado = AlmacenEstado.obtener(context).actual();
+        if (estado.getDiaActual() != diaActual) estado = estado.conPosicion(diaActual, estado.getIndiceMensajeDia());
+        EstadoSimulacion posicion = estado;
+        conMotor(context, motor -> ejecutarComandos(context, motor.efectos(posicion, horaReal())));
+    }
+
+    // Las reglas (qué suena, qué se notifica, cuándo el SOS) están en MotorSimulacion;
+    // aquí solo se ejecuta lo que pide
+    private static void ejecutarComandos(Context context, List<MotorSimulacion.Comando> comandos) {
+        for (MotorSimulacion.Comando comando : comandos) {
+            try {
+                switch (comando.getTipo()) {
+                    case SONIDO:
+                        reproducirSonido(context, comando.getMensaje());
+                        break;
+                    case NOTIFICAR:
+                        mostrarNotificacion(context, comando.getMensaje(), comando.getIndice());
+                        break;
+                    case LINTERNA:
+                        activarLinterna(context, comando.getTexto());
+                        break;
+                    case RESUMEN:
+                        DespachadorNotificaciones.publicarResumenSalto(context, comando.getMensajes());
+                        break;
                 }
+            } catch (Exception e) {
+                e.printStackTrace();
             }
-
-        } catch (Exception e) {
-            e.printStackTrace();
         }
     }
 
-    public static void mostrarNotificacion(Context context, Mensaje mensaje) {
-        String canalId = "alertas_gremlins";
-        NotificationManager gestor = (NotificationManager)
-                context.getSystemService(Context.NOTIFICATION_SERVICE);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            NotificationChannel canal = new NotificationChannel(
-                    canalId, "Alertas Apocalipsis Gremlins", NotificationManager.IMPORTANCE_HIGH);
-            gestor.createNotificationChannel(canal);
-        }
-
-        Intent intent = new Intent(context, VistaPrincipal.class);
-        android.app.PendingIntent pendingIntent = android.app.PendingIntent.getActivity(context, 0, intent, android.app.PendingIntent.FLAG_IMMUTABLE);
+    // El motor necesita el catálogo: si aún se está leyendo (arranque en frío, historia recién
+    // cambiada), la acción se hace cuando esté publicado, sin esperar en el hilo principal
+    private static void conMotor(Context context, Consumer<MotorSimulacion> accion) {
+        GestorEscenario.cargarEnSegundoPlano(context, catalogo -> accion.accept(new MotorSimulacion(catalogo)));
+    }
 
-        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, canalId)
-                .setSmallIcon(R.drawable.ic_alerta)
-                .setContentTitle("⚠️ Alerta del Gobierno de España")
-                .setContentText(mensaje.getTexto())
-                .setStyle(new NotificationCompat.BigTextStyle().bigText(mensaje.getTexto()))
-                .setAutoCancel(true)
-                .setPriority(NotificationCompat.PRIORITY_HIGH)
-                .setContentIntent(pendingIntent)
-                .setVibrate(new long[]{0, 400, 200, 400});
+    private static int horaReal() {
+        return Calendar.getInstance().get(Calendar.HOUR_OF_DAY);
+    }
 
-        gestor.notify(mensaje.getDia(), builder.build());
+    public static void mostrarNotificacion(Context context, Mensaje mensaje, int indice) {
+        // Canal creado una vez, id por (día, índice), agrupadas por día y sin ráfagas
+        DespachadorNotificaciones.publicar(context, mensaje, indice);
     }
 
     public static void reproducirSonido(Context context, Mensaje mensaje) {
-        int sonidoId = mensaje.obtenerRecursoSonido();
-        if (sonidoId != 0) {
-            MediaPlayer mp = MediaPlayer.create(context, sonidoId);
-            mp.start();
+        // Un paquete de escenario puede traer sus propios sonidos (mismo nombre que en el JSON)
+        PaqueteEscenario paquete = GestorPaquetes.activo(context);
+        if (!paquete.esPredeterminado() && paquete.tieneSonido(mensaje.getSonido())) {
+            MotorSonido.reproducirDePaquete(context, paquete, mensaje.getSonido());
+            return;
         }
+
+        // Cortos ya precargados en memoria; largos en streaming en el hilo de audio
+        MotorSonido.reproducir(context, mensaje.obtenerRecursoSonido());
     }
 
     // ============================================================
     // LINTERNA SOS
     // ============================================================
     public static void activarLinternaSOS(Context context) {
-        try {
-            CameraManager camManager = (CameraManager) context.getSystemService(Context.CAMERA_SERVICE);
-            String cameraId = camManager.getCameraIdList()[0];
-
-            int corto = 200;
-            int largo = 600;
-            int pausa = 150;
-
-            Runnable parpadear = () -> {
-                try {
-                    for (int i = 0; i < 3; i++) {
-                        camManager.setTorchMode(cameraId, true);
-                        Thread.sleep(corto);
-                        camManager.setTorchMode(cameraId, false);
-                        Thread.sleep(pausa);
-                    }
-
-                    Thread.sleep(400);
-
-                    for (int i = 0; i < 3; i++) {
-                        camManager.setTorchMode(cameraId, true);
-                        Thread.sleep(largo);
-                        camManager.setTorchMode(cameraId, false);
-                        Thread.sleep(pausa);
-                    }
-
-                    Thread.sleep(400);
-
-                    for (int i = 0; i < 3; i++) {
-                        camManager.setTorchMode(cameraId, true);
-                        Thread.sleep(corto);
-                        camManager.setTorchMode(cameraId, false);
-                        Thread.sleep(pausa);
-                    }
-
-                    camManager.setTorchMode(cameraId, false);
-
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            };
-
-            new Thread(parpadear).start();
+        activarLinterna(context, MotorSimulacion.TEXTO_SOS);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    public static void activarLinterna(Context context, String texto) {
+        // Un solo patrón a la vez, en el hilo de la linterna; se corta al salir de la app
+        if (!SenalizadorLinterna.emitirTexto(context, texto)) {
             Toast.makeText(context, "Error al activar linterna SOS", Toast.LENGTH_SHORT).show();
         }
     }
@@ -351,42 +336,54 @@ public class Controlador {
  * 1️⃣ **Modo desarrollador**
  *    - Detecta 5 toques en el escudo del Gobierno.
  *    - Activa o desactiva el modo desarrollador en SharedPreferences.
- *    - Recarga la actividad actual para aplicar cambios visuales.
+ *    - Aplica el cambio en la pantalla actual sin recrearla
+ *      (la cabecera de cada sección está suscrita a `AlmacenEstado`).
  *    - Muestra mensajes de confirmación (“Modo desarrollador ACTIVADO/DESACTIVADO”).
  *
  * 2️⃣ **Avance de simulación**
  *    - Controla el día actual (`diaActual`) y el índice del mensaje (`indiceMensajeDia`).
  *    - Si aún quedan mensajes del día → muestra el siguiente.
  *    - Si no → pasa al siguiente día.
+ *    - Las reglas están en `MotorSimulacion` (Java puro): devuelve el estado
+ *      siguiente y los comandos (sonido, notificación, linterna) que aquí se ejecutan.
  *    - Reproduce sonido, notificación y actualiza vistas.
+ *    - Pulsación larga en “Avanzar” (modo desarrollador): saltar a un día
+ *      o avanzar N pasos de golpe, con un solo guardado y un solo refresco.
+ *      Las alertas del camino se suprimen o se resumen en una notificación.
  *
  * 3️⃣ **Reinicio de simulación**
  *    - Restablece el progreso (día 1, índice 0, fecha inicial).
  *    - Mantiene el estado del modo desarrollador activo o no.
  *    - Notifica con un mensaje “Reiniciado al día 1”.
+ *    - Pulsación larga en “Reiniciar”: elegir otra historia (paquete de escenario,
+ *      ver `GestorPaquetes`); se empieza desde el día 1 con su catálogo.
  *
  * 4️⃣ **Procesamiento de alertas**
- *    - Lee `alertas.json` desde /assets.
- *    - Busca las alertas correspondientes al día actual.
+ *    - Consulta las alertas del día en el `CatalogoEscenario` compartido
+ *      (los JSON de /assets se leen una sola vez, en `GestorEscenario`).
  *    - Muestra solo la alerta o guía que toca según el índice.
  *    - Reproduce el sonido y lanza la notificación del Gobierno.
  *
  * 5️⃣ **Notificaciones y sonido**
- *    - Usa `NotificationCompat` para mostrar avisos del “Gobierno de España”.
+ *    - `DespachadorNotificaciones` muestra los avisos del “Gobierno de España”
+ *      (agrupados por día, con resumen y sin perder avisos en ráfagas).
  *    - Cada mensaje puede incluir vibración y texto expandido.
- *    - Los sonidos se gestionan con `MediaPlayer` y se asocian al tipo de alerta.
+ *    - Los sonidos los reproduce `MotorSonido` (cortos precargados en un `SoundPool`,
+ *      largos en streaming en su propio hilo) y se asocian al tipo de alerta.
  *
  * 6️⃣ **Evento especial — Día 14 (23:00h)**
  *    - Activa la linterna del dispositivo en patrón **SOS (... --- ...)**
+ *      a través de `SenalizadorLinterna` (cancelable, un patrón a la vez).
  *    - Simula una alerta máxima del Gobierno.
  *
  * ------------------------------------------------------------
- * 🗂️ Datos gestionados (SharedPreferences)
+ * 🗂️ Datos gestionados (SharedPreferences, a través de `AlmacenEstado`)
  * ------------------------------------------------------------
  *  - nombreUsuario → Nombre introducido en el login
  *  - diaActual → Día simulado actual
  *  - indiceMensajeDia → Índice del mensaje dentro del día
  *  - fechaInicio → Fecha base desde la que se simula el paso de días
+ *    (las fechas de cada día se formatean una vez y se guardan en `EtiquetasFecha`)
  *  - modoDesarrollador → Estado del modo oculto (true/false)
  *
  * ------------------------------------------------------------
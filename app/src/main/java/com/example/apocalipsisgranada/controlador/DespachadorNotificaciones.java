@@ -0,0 +1,281 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.core.app.NotificationCompat;
+
+import com.example.apocalipsisgranada.R;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+import com.example.apocalipsisgranada.vista.VistaPrincipal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Todos los métodos se llaman desde el hilo principal.
+ */
+public class DespachadorNotificaciones {
+
+    private static final String CANAL_ID = "alertas_gremlins";
+    private static final String TITULO = "⚠️ Alerta del Gobierno de España";
+    private static final int MAX_LINEAS_RESUMEN = 6;    // líneas visibles en el resumen del día
+    private static final int ID_RESUMEN = 999;           // índice reservado para el resumen de cada día
+    private static final int ID_SALTO = ID_RESUMEN;      // resumen de un salto (día 0 → id 999)
+
+    private static long ventanaMs = 1000;               // avisos más seguidos que esto se agrupan en uno
+    private static final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    private static boolean canalCreado = false;
+    private static PendingIntent abrirApp;
+
+    // Avisos en espera dentro de la ventana
+    private static final List<Mensaje> pendientes = new ArrayList<>();
+    private static final List<Integer> indicesPendientes = new ArrayList<>();
+    private static boolean envioProgramado = false;
+    private static long ultimoEnvio = 0;
+
+    // Resumen del día en curso (InboxStyle)
+    private static final ResumenDia resumen = new ResumenDia();
+
+    // ============================================================
+    // CONFIGURAR VENTANA DE AGRUPACIÓN
+    // ============================================================
+    public static void configurarVentana(long milisegundos) {
+        ventanaMs = Math.max(0, milisegundos);
+    }
+
+    // ============================================================
+    // PUBLICAR UNA ALERTA
+    // - id estable por (día, índice): las alertas de un mismo día no se pisan
+    // - ráfagas (avanzar muy rápido): una sola actualización por ventana
+    // ============================================================
+    public static void publicar(Context context, Mensaje mensaje, int indice) {
+        Context aplicacion = context.getApplicationContext();
+        pendientes.add(mensaje);
+        indicesPendientes.add(indice);
+
+        if (envioProgramado) {
+            Metricas.contar(Metricas.NOTIFICACION_AGRUPADA);
+            return; // ya hay un envío en camino: este aviso irá en él
+        }
+
+        long espera = ultimoEnvio + ventanaMs - SystemClock.elapsedRealtime();
+        if (espera <= 0) {
+            enviar(aplicacion);
+        } else {
+            envioProgramado = true;
+            hiloPrincipal.postDelayed(() -> {
+                envioProgramado = false;
+                enviar(aplicacion);
+            }, espera);
+        }
+    }
+
+    public static int idNotificacion(int dia, int indice) {
+        return dia * 1000 + indice;
+    }
+
+    // ============================================================
+    // ENVIAR LO PENDIENTE
+    // Solo la última alerta va como notificación propia; las anteriores
+    // de la ráfaga quedan como líneas del resumen del día
+    // ============================================================
+    private static void enviar(Context context) {
+        if (pendientes.isEmpty()) return;
+
+        long inicio = Metricas.empezar(Metricas.NOTIFICAR);
+        try {
+            NotificationManager gestor = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+            crearCanal(gestor);
+
+            // Si la ráfaga cruza de un día a otro, el resumen del día que se cierra se publica
+            // antes de empezar el siguiente: sus alertas no tuvieron notificación propia
+            for (int i = 0; i < pendientes.size(); i++) {
+                resumen.anadir(pendientes.get(i), (dia, lineas) ->
+                        gestor.notify(idNotificacion(dia, ID_RESUMEN), construirResumen(context, dia, lineas)));
+            }
+
+            Mensaje ultimo = pendientes.get(pendientes.size() - 1);
+            int indice = indicesPendientes.get(indicesPendientes.size() - 1);
+            pendientes.clear();
+            indicesPendientes.clear();
+
+            String grupo = "dia_" + ultimo.getDia();
+            NotificationCompat.Builder alerta = new NotificationCompat.Builder(context, CANAL_ID)
+                    .setSmallIcon(R.drawable.ic_alerta)
+                    .setContentTitle(TITULO)
+                    .setContentText(ultimo.getTexto())
+                    .setStyle(new NotificationCompat.BigTextStyle().bigText(ultimo.getTexto()))
+                    .setAutoCancel(true)
+                    .setPriority(NotificationCompat.PRIORITY_HIGH)
+                    .setContentIntent(obtenerIntent(context))
+                    .setVibrate(new long[]{0, 400, 200, 400})
+                    .setGroup(grupo);
+
+            gestor.notify(idNotificacion(ultimo.getDia(), indice), alerta.build());
+            gestor.notify(idNotificacion(ultimo.getDia(), ID_RESUMEN),
+                    construirResumen(context, resumen.getDia(), resumen.getLineas()));
+            resumen.marcarPublicado();
+            ultimoEnvio = SystemClock.elapsedRealtime();
+        } finally {
+            Metricas.terminar(Metricas.NOTIFICAR, inicio);
+        }
+    }
+
+    // ============================================================
+    // RESUMEN DE UN SALTO (modo desarrollador)
+    // Las alertas saltadas van en una sola notificación silenciosa, no una a una
+    // ============================================================
+    public static void publicarResumenSalto(Context context, List<Mensaje> saltadas) {
+        if (saltadas.isEmpty()) return;
+        Context aplicacion = context.getApplicationContext();
+        NotificationManager gestor = (NotificationManager) aplicacion.getSystemService(Context.NOTIFICATION_SERVICE);
+        crearCanal(gestor);
+
+        int primerDia = saltadas.get(0).getDia();
+        int ultimoDia = saltadas.get(saltadas.size() - 1).getDia();
+        String titulo = saltadas.size() + " alertas saltadas (días " + primerDia + "–" + ultimoDia + ")";
+
+        NotificationCompat.InboxStyle estilo = new NotificationCompat.InboxStyle().setBigContentTitle(titulo);
+        int mostradas = Math.min(MAX_LINEAS_RESUMEN, saltadas.size());
+        for (int i = saltadas.size() - 1; i >= saltadas.size() - mostradas; i--) {
+            estilo.addLine(saltadas.get(i).getTexto());
+        }
+        if (saltadas.size() > mostradas) {
+            estilo.setSummaryText("+" + (saltadas.size() - mostradas) + " más");
+        }
+
+        Notification resumen = new NotificationCompat.Builder(aplicacion, CANAL_ID)
+                .setSmallIcon(R.drawable.ic_alerta)
+                .setContentTitle(TITULO)
+                .setContentText(titulo)
+                .setStyle(estilo)
+                .setNumber(saltadas.size())
+                .setAutoCancel(true)
+                .setSilent(true)
+                .setContentIntent(obtenerIntent(aplicacion))
+                .build();
+        gestor.notify(idNotificacion(0, ID_SALTO), resumen);
+    }
+
+    private static Notification construirResumen(Context context, int diaResumen, List<String> lineasResumen) {
+        NotificationCompat.InboxStyle estilo = new NotificationCompat.InboxStyle()
+                .setBigContentTitle("Día " + diaResumen + " — " + lineasResumen.size() + " alertas");
+
+        // Las más recientes primero
+        int mostradas = Math.min(MAX_LINEAS_RESUMEN, lineasResumen.size());
+        for (int i = lineasResumen.size() - 1; i >= lineasResumen.size() - mostradas; i--) {
+            estilo.addLine(lineasResumen.get(i));
+        }
+        if (lineasResumen.size() > mostradas) {
+            estilo.setSummaryText("+" + (lineasResumen.size() - mostradas) + " más");
+        }
+
+        return new NotificationCompat.Builder(context, CANAL_ID)
+                .setSmallIcon(R.drawable.ic_alerta)
+                .setContentTitle(TITULO)
+                .setContentText(lineasResumen.size() + " alertas del día " + diaResumen)
+                .setStyle(estilo)
+                .setNumber(lineasResumen.size())
+                .setAutoCancel(true)
+                .setContentIntent(obtenerIntent(context))
+                .setGroup("dia_" + diaResumen)
+                .setGroupSummary(true)
+                .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_CHILDREN) // el resumen no vuelve a sonar
+                .build();
+    }
+
+    // ============================================================
+    // RESUMEN DEL DÍA EN CURSO (Java puro, sin Android: se prueba en la JVM)
+    // ============================================================
+    static final class ResumenDia {
+
+        /**
+         * Un día se cierra con líneas que aún no salieron en ningún resumen publicado.
+         */
+        interface AlCerrarDia {
+            void alCerrar(int dia, List<String> lineas);
+        }
+
+        private int dia = -1;
+        private final List<String> lineas = new ArrayList<>();
+        private boolean sinPublicar = false;   // hay líneas que el último resumen publicado no tenía
+
+        void anadir(Mensaje mensaje, AlCerrarDia alCerrarDia) {
+            if (mensaje.getDia() != dia) {
+                if (sinPublicar) alCerrarDia.alCerrar(dia, new ArrayList<>(lineas));
+                dia = mensaje.getDia();
+                lineas.clear();
+            }
+            lineas.add(mensaje.getTexto());
+            sinPublicar = true;
+        }
+
+        void marcarPublicado() {
+            sinPublicar = false;
+        }
+
+        int getDia() { return dia; }
+        List<String> getLineas() { return lineas; }
+    }
+
+    // ============================================================
+    // CANAL E INTENT (se crean una sola vez)
+    // ============================================================
+    private static void crearCanal(NotificationManager gestor) {
+        if (canalCreado) return;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel canal = new NotificationChannel(
+                    CANAL_ID, "Alertas Apocalipsis Gremlins", NotificationManager.IMPORTANCE_HIGH);
+            gestor.createNotificationChannel(canal);
+        }
+        canalCreado = true;
+    }
+
+    private static PendingIntent obtenerIntent(Context context) {
+        if (abrirApp == null) {
+            Intent intent = new Intent(context, VistaPrincipal.class);
+            abrirApp = PendingIntent.getActivity(context, 0, intent, PendingIntent.FLAG_IMMUTABLE);
+        }
+        return abrirApp;
+    }
+}
+
+/**
+ * ============================================================
+ * 📣 Clase: DespachadorNotificaciones.java
+ * ============================================================
+ *
+ * Publica las alertas del Gobierno como notificaciones del sistema.
+ *
+ * Antes cada alerta volvía a crear el canal y el `PendingIntent`, y todas
+ * usaban como id el número de día: las alertas de un mismo día se pisaban.
+ * Además, al pulsar “Avanzar” muy deprisa, Android descartaba avisos
+ * sin decir nada (límite de notificaciones por segundo).
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - El canal y el `PendingIntent` se crean una sola vez.
+ *  - Cada alerta tiene un id estable: `dia * 1000 + indice`.
+ *  - Las alertas de un día van en un grupo con un resumen `InboxStyle`
+ *    (id `dia * 1000 + 999`) que lista las últimas.
+ *  - Ráfagas: si llegan varias dentro de `ventanaMs` (configurable),
+ *    se hace un único envío con la última alerta y el resumen actualizado.
+ *    Si la ráfaga cruza de día, antes se publica completo el resumen del
+ *    día anterior (`ResumenDia`), para que ninguna alerta se quede fuera.
+ *  - Saltos del modo desarrollador: `publicarResumenSalto()` junta todas
+ *    las alertas saltadas en una sola notificación silenciosa.
+ *
+ * ============================================================
+ */
@@ -0,0 +1,99 @@
+package com.example.apocalipsisgranada.controlador;
+
+public final class EstadoSimulacion {
+
+    /** Paquete de escenario de una instalación nueva (`PaqueteEscenario.PREDETERMINADO`). */
+    public static final String PAQUETE_INICIAL = "granada";
+
+    /** Estado de una instalación nueva (o tras cerrar sesión). */
+    public static final EstadoSimulacion INICIAL =
+            new EstadoSimulacion(1, 0, 0, false, 0, "", true, PAQUETE_INICIAL);
+
+    // ====== CAMPOS (inmutables) ======
+    private final int diaActual;            // Día simulado actual
+    private final int indiceMensajeDia;     // Índice del par que se está mostrando dentro del día
+    private final long fechaInicio;         // Fecha real que corresponde al día 1 (0 = aún sin fijar)
+    private final boolean modoDesarrollador;
+    private final int contadorToques;       // Toques seguidos en el escudo
+    private final String nombreUsuario;
+    private final boolean primerArranque;
+    private final String paqueteActivo;     // id del paquete de escenario que se está jugando
+
+    EstadoSimulacion(int diaActual, int indiceMensajeDia, long fechaInicio, boolean modoDesarrollador,
+            int contadorToques, String nombreUsuario, boolean primerArranque, String paqueteActivo) {
+        this.diaActual = diaActual;
+        this.indiceMensajeDia = indiceMensajeDia;
+        this.fechaInicio = fechaInicio;
+        this.modoDesarrollador = modoDesarrollador;
+        this.contadorToques = contadorToques;
+        this.nombreUsuario = nombreUsuario;
+        this.primerArranque = primerArranque;
+        this.paqueteActivo = paqueteActivo;
+    }
+
+    // ====== GETTERS ======
+    public int getDiaActual() { return diaActual; }
+    public int getIndiceMensajeDia() { return indiceMensajeDia; }
+    public long getFechaInicio() { return fechaInicio; }
+    public boolean isModoDesarrollador() { return modoDesarrollador; }
+    public int getContadorToques() { return contadorToques; }
+    public String getNombreUsuario() { return nombreUsuario; }
+    public boolean isPrimerArranque() { return primerArranque; }
+    public String getPaqueteActivo() { return paqueteActivo; }
+
+    // ====== COPIAS CON UN CAMBIO ======
+    public EstadoSimulacion conPosicion(int dia, int indice) {
+        return new EstadoSimulacion(dia, indice, fechaInicio, modoDesarrollador, contadorToques, nombreUsuario, primerArranque, paqueteActivo);
+    }
+
+    public EstadoSimulacion conFechaInicio(long fecha) {
+        return new EstadoSimulacion(diaActual, indiceMensajeDia, fecha, modoDesarrollador, contadorToques, nombreUsuario, primerArranque, paqueteActivo);
+    }
+
+    public EstadoSimulacion conModoDesarrollador(boolean modo) {
+        return new EstadoSimulacion(diaActual, indiceMensajeDia, fechaInicio, modo, contadorToques, nombreUsuario, primerArranque, paqueteActivo);
+    }
+
+    public EstadoSimulacion conContadorToques(int toques) {
+        return new EstadoSimulacion(diaActual, indiceMensajeDia, fechaInicio, modoDesarrollador, toques, nombreUsuario, primerArranque, paqueteActivo);
+    }
+
+    public EstadoSimulacion conNombreUsuario(String nombre) {
+        return new EstadoSimulacion(diaActual, indiceMensajeDia, fechaInicio, modoDesarrollador, contadorToques, nombre, primerArranque, paqueteActivo);
+    }
+
+    public EstadoSimulacion conPrimerArranque(boolean primero) {
+        return new EstadoSimulacion(diaActual, indiceMensajeDia, fechaInicio, modoDesarrollador, contadorToques, nombreUsuario, primero, paqueteActivo);
+    }
+
+    public EstadoSimulacion conPaqueteActivo(String paquete) {
+        return new EstadoSimulacion(diaActual, indiceMensajeDia, fechaInicio, modoDesarrollador, contadorToques, nombreUsuario, primerArranque, paquete);
+    }
+
+    /**
+     * Vuelve al día 1 con una fecha de inicio nueva. Conserva usuario, modo desarrollador y paquete.
+     */
+    public EstadoSimulacion reiniciado(long nuevaFechaInicio) {
+        return new EstadoSimulacion(1, 0, nuevaFechaInicio, modoDesarrollador, 0, nombreUsuario, false, paqueteActivo);
+    }
+}
+
+/**
+ * ============================================================
+ * 🧾 Clase: EstadoSimulacion.java
+ * ============================================================
+ *
+ * Foto **inmutable** de todo el estado guardado de la simulación:
+ * día, índice, fecha de inicio, modo desarrollador, toques en el escudo,
+ * nombre de usuario, primer arranque y paquete de escenario activo.
+ *
+ * No se modifica nunca: cada cambio devuelve una copia (`conPosicion()`,
+ * `conModoDesarrollador()`...). Así cualquier hilo puede leer una foto
+ * sin miedo a verla a medio cambiar.
+ *
+ * Es Java puro (no conoce SharedPreferences): `AlmacenEstado` tiene las
+ * claves y se encarga de leerlo y guardarlo. Así `MotorSimulacion` y sus
+ * tests trabajan con el estado sin Android.
+ *
+ * ============================================================
+ */
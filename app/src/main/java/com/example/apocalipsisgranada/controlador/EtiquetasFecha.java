@@ -0,0 +1,81 @@
+package com.example.apocalipsisgranada.controlador;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+
+public class EtiquetasFecha {
+
+    private static final long MILIS_DIA = 24L * 60 * 60 * 1000;
+
+    // Un solo formateador (SimpleDateFormat no es seguro entre hilos: se usa con el candado de la clase)
+    private static final SimpleDateFormat formato =
+            new SimpleDateFormat("EEEE, d 'de' MMMM 'de' yyyy", new Locale("es", "ES"));
+
+    // ====== CACHÉ ======
+    private static long fechaInicioCache = 0;          // fechaInicio con la que se formatearon las etiquetas
+    private static String[] etiquetas = new String[16]; // etiquetas[dia] → "lunes, 27 de octubre de 2025" (día 0 incluido)
+
+    // ============================================================
+    // ETIQUETA DE UN DÍA (se formatea una sola vez por fechaInicio y día)
+    // ============================================================
+    public static synchronized String etiqueta(long fechaInicio, int dia) {
+        if (fechaInicio != fechaInicioCache) {
+            // Otra fecha de inicio (reinicio): las etiquetas guardadas ya no valen
+            Arrays.fill(etiquetas, null);
+            fechaInicioCache = fechaInicio;
+        }
+
+        // El día 0 (mensaje fijo) se guarda como los demás; los negativos no aparecen en pantalla
+        if (dia < 0) return formatear(fechaInicio, dia);
+
+        if (dia >= etiquetas.length) {
+            etiquetas = Arrays.copyOf(etiquetas, Math.max(dia + 1, etiquetas.length * 2));
+        }
+
+        String etiqueta = etiquetas[dia];
+        if (etiqueta == null) {
+            etiqueta = formatear(fechaInicio, dia);
+            etiquetas[dia] = etiqueta;
+        }
+        return etiqueta;
+    }
+
+    /**
+     * Olvida todas las etiquetas (al reiniciar la simulación).
+     */
+    public static synchronized void invalidar() {
+        Arrays.fill(etiquetas, null);
+        fechaInicioCache = 0;
+    }
+
+    private static String formatear(long fechaInicio, int dia) {
+        long fechaSimulada = fechaInicio + (long) (dia - 1) * MILIS_DIA;
+        return formato.format(new Date(fechaSimulada));
+    }
+}
+
+/**
+ * ============================================================
+ * 📅 Clase: EtiquetasFecha.java
+ * ============================================================
+ *
+ * Guarda las **fechas simuladas ya formateadas** de cada día
+ * (“lunes, 27 de octubre de 2025”).
+ *
+ * Antes se creaba un `SimpleDateFormat` nuevo por cada mensaje y cada
+ * tarjeta guardaba su propia copia del texto. Ahora cada día se formatea
+ * una sola vez y todas las tarjetas de ese día comparten la misma cadena.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - La caché depende de `fechaInicio`: si cambia (reinicio), se vacía sola.
+ *  - `invalidar()` la vacía explícitamente (lo llama `Preferencias` al reiniciar).
+ *  - La usa `Controlador.obtenerFechaSimulada()`, que es a quien llaman
+ *    la cabecera (`ManejadorVistas`) y `AdaptadorMensajes` al pintar cada tarjeta.
+ *
+ * ============================================================
+ */
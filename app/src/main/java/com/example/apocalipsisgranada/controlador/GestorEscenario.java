@@ -0,0 +1,316 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GestorEscenario {
+
+    /**
+     * Se llama en el hilo principal cuando el catálogo está listo.
+     */
+    public interface AlCargar {
+        void alCargar(CatalogoEscenario catalogo);
+    }
+
+    // Dos hilos: la carga del catálogo no espera a los índices de búsqueda ni a otro paquete
+    private static final ExecutorService ejecutor = Executors.newFixedThreadPool(2, tarea -> {
+        Thread hilo = new Thread(tarea, "carga-escenario");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private static final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    // Catálogo del paquete activo. Se escribe primero el catálogo y después su id:
+    // quien lea el id y luego el catálogo nunca ve un catálogo más antiguo que ese id
+    private static volatile CatalogoEscenario catalogo;
+    private static volatile String idCatalogo;
+    private static Future<CatalogoEscenario> cargaEnCurso;
+    private static String idCargaEnCurso;
+    private static final List<AlCargar> pendientes = new ArrayList<>();
+
+    // ============================================================
+    // CATÁLOGO DEL PAQUETE ACTIVO (se carga una sola vez por paquete)
+    // Desde el hilo principal nunca se espera a la lectura
+    // ============================================================
+
+    /**
+     * Catálogo del paquete activo si ya está leído (o sigue en el LRU); null si aún se está
+     * cargando. Nunca espera: es lo que usan las pantallas desde el hilo principal.
+     */
+    public static CatalogoEscenario catalogoCargado(Context context) {
+        String id = paqueteActivo(context);
+        if (id.equals(idCatalogo)) return catalogo;
+
+        // Recién cambiado de paquete: si ya está leído (prepararPaquete), se publica sin esperar a nadie
+        CatalogoEscenario enMemoria = GestorPaquetes.enMemoria(id);
+        if (enMemoria == null) return null;
+        synchronized (GestorEscenario.class) {
+            idCargaEnCurso = id;   // una carga anterior de otro paquete ya no se publicará
+            cargaEnCurso = null;
+        }
+        publicar(id, enMemoria);
+        return enMemoria;
+    }
+
+    // ============================================================
+    // CARGAR EN SEGUNDO PLANO (sin bloquear el primer fotograma)
+    // ============================================================
+    public static void cargarEnSegundoPlano(Context context, AlCargar receptor) {
+        CatalogoEscenario listo = catalogoCargado(context);
+        if (listo != null) {
+            receptor.alCargar(listo);   // ya leído: en el momento
+            return;
+        }
+
+        String id = paqueteActivo(context);
+
+        synchronized (GestorEscenario.class) {
+            if (!id.equals(idCatalogo)) {
+                pendientes.add(receptor);
+                iniciarCarga(context, id);
+                return;
+            }
+        }
+        receptor.alCargar(catalogo);
+    }
+
+    /**
+     * Empieza a leer los archivos cuanto antes (por ejemplo, mientras se muestra el login).
+     */
+    public static void precargar(Context context) {
+        String id = paqueteActivo(context);
+        if (id.equals(idCatalogo)) return;
+        synchronized (GestorEscenario.class) {
+            iniciarCarga(context, id);
+        }
+    }
+
+    /**
+     * Construye en segundo plano el índice de búsqueda (alertas o guías) para que
+     * la primera letra que escriba el usuario no tenga que esperar.
+     */
+    public static void prepararBusqueda(CatalogoEscenario catalogo, boolean guias) {
+        prepararBusqueda(catalogo, guias, null);
+    }
+
+    /**
+     * Igual, y avisa en el hilo principal cuando el índice está listo (si ya lo estaba, enseguida).
+     * Así una búsqueda escrita antes de tiempo se repite al terminar, sin esperar en el hilo principal.
+     */
+    public static void prepararBusqueda(CatalogoEscenario catalogo, boolean guias, Runnable alTerminar) {
+        ejecutor.execute(() -> {
+            if (guias) catalogo.indiceGuias();
+            else catalogo.indiceAlertas();
+            if (alTerminar != null) hiloPrincipal.post(alTerminar);
+        });
+    }
+
+    /**
+     * Lee un paquete (o lo toma del LRU) sin hacerlo activo. Se usa antes de cambiar de
+     * historia: cuando el estado cambie, las pantallas ya encontrarán el catálogo listo.
+     */
+    public static void prepararPaquete(Context context, String id, AlCargar receptor) {
+        Context aplicacion = context.getApplicationContext();
+        ejecutor.execute(() -> {
+            CatalogoEscenario listo;
+            try {
+                listo = leerPaquete(aplicacion, id);
+            } catch (Exception e) {
+                e.printStackTrace();
+                listo = new CatalogoEscenario(new ArrayList<>(), new ArrayList<>());
+            }
+            CatalogoEscenario leido = listo;
+            hiloPrincipal.post(() -> receptor.alCargar(leido));
+        });
+    }
+
+    /**
+     * Un paquete se reinstaló: si era el publicado, la próxima consulta lo vuelve a leer.
+     */
+    static void olvidar(String id) {
+        synchronized (GestorEscenario.class) {
+            if (!id.equals(idCatalogo)) return;
+            idCatalogo = null;     // `catalogo` ya no se usa sin su id
+            cargaEnCurso = null;   // terminada: la próxima consulta empieza una lectura nueva
+        }
+    }
+
+    private static String paqueteActivo(Context context) {
+        return AlmacenEstado.obtener(context).actual().getPaqueteActivo();
+    }
+
+    // Debe llamarse con el candado de GestorEscenario.class
+    private static Future<CatalogoEscenario> iniciarCarga(Context context, String id) {
+        if (cargaEnCurso == null || !id.equals(idCargaEnCurso)) {
+            Context aplicacion = context.getApplicationContext();
+            idCargaEnCurso = id;
+            cargaEnCurso = ejecutor.submit(() -> cargarCatalogo(aplicacion, id));
+        }
+        return cargaEnCurso;
+    }
+
+    private static CatalogoEscenario cargarCatalogo(Context context, String id) throws Exception {
+        GestorPaquetes.listar(context);   // la lista de paquetes (para sus sonidos) también aquí, fuera del hilo principal
+        CatalogoEscenario nuevo = leerPaquete(context, id);
+        publicar(id, nuevo);
+        return nuevo;
+    }
+
+    private static CatalogoEscenario leerPaquete(Context context, String id) throws Exception {
+        // Un paquete jugado hace poco sigue en memoria: volver a él no lee nada
+        CatalogoEscenario nuevo = GestorPaquetes.enMemoria(id);
+
+        if (nuevo == null) {
+            long inicio = Metricas.empezar(Metricas.CARGA_ESCENARIO);
+            try {
+                PaqueteEscenario paquete = PaqueteEscenario.PREDETERMINADO.equals(id) ? null : GestorPaquetes.buscar(context, id);
+                // Un paquete que ya no existe (desinstalado) se juega con la historia original
+                nuevo = paquete != null ? GestorPaquetes.leerCatalogo(context, paquete) : cargarPredeterminado(context);
+            } finally {
+                Metricas.terminar(Metricas.CARGA_ESCENARIO, inicio);
+            }
+            GestorPaquetes.guardarEnMemoria(id, nuevo);
+        } else {
+            Metricas.contar(Metricas.PAQUETE_DESDE_LRU);
+        }
+        return nuevo;
+    }
+
+    // Hace activo el catálogo y avisa a quien lo esperaba
+    private static void publicar(String id, CatalogoEscenario nuevo) {
+        List<AlCargar> avisar;
+        synchronized (GestorEscenario.class) {
+            // Si mientras tanto se cambió a otro paquete, esta carga solo queda en el LRU
+            if (!id.equals(idCargaEnCurso)) return;
+            catalogo = nuevo;
+            idCatalogo = id;
+            avisar = new ArrayList<>(pendientes);
+            pendientes.clear();
+        }
+
+        if (!avisar.isEmpty()) {
+            hiloPrincipal.post(() -> {
+                for (int i = 0; i < avisar.size(); i++) {
+                    avisar.get(i).alCargar(nuevo);
+                }
+            });
+        }
+    }
+
+    private static CatalogoEscenario cargarPredeterminado(Context context) {
+        // Lo normal: el escenario compilado en el build (sin parsear JSON)
+        CatalogoEscenario nuevo = leerCompilado(context);
+
+        if (nuevo == null) {
+            // Alternativa: los dos JSON en esta misma tarea, uno tras otro, y se unen por día.
+            // No se reparte en el ejecutor: esperar aquí a otra tarea suya podría dejarlo sin hilos
+            List<Mensaje> alertas = leerArchivo(context, "alertas.json", "alerta");
+            List<Mensaje> guias = leerArchivo(context, "guias.json", "guia");
+            nuevo = new CatalogoEscenario(alertas, guias);
+        }
+        return nuevo;
+    }
+
+    // ============================================================
+    // LEER ESCENARIO COMPILADO (escenario.bin, generado en el build)
+    // Se proyecta en memoria: solo se leen las páginas que se consultan
+    // ============================================================
+    private static CatalogoEscenario leerCompilado(Context context) {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(LectorEscenarioBinario.ARCHIVO);
+             FileInputStream entrada = new FileInputStream(descriptor.getFileDescriptor())) {
+            ByteBuffer datos = entrada.getChannel().map(
+                    FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength());
+            return LectorEscenarioBinario.leerCatalogo(datos);
+        } catch (FileNotFoundException e) {
+            // No existe, o está comprimido dentro del APK y no se puede proyectar
+            return leerCompiladoSinProyectar(context);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static CatalogoEscenario leerCompiladoSinProyectar(Context context) {
+        try (InputStream is = context.getAssets().open(LectorEscenarioBinario.ARCHIVO)) {
+            ByteArrayOutputStream copia = new ByteArrayOutputStream();
+            byte[] bloque = new byte[8 * 1024];
+            int leidos;
+            while ((leidos = is.read(bloque)) != -1) {
+                copia.write(bloque, 0, leidos);
+            }
+            return LectorEscenarioBinario.leerCatalogo(ByteBuffer.wrap(copia.toByteArray()));
+        } catch (FileNotFoundException e) {
+            return null;   // sin escenario compilado: se usan los JSON
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // ============================================================
+    // LEER ARCHIVO JSON DE /assets
+    // ============================================================
+    private static List<Mensaje> leerArchivo(Context context, String archivo, String tipo) {
+        List<Mensaje> mensajes = new ArrayList<>();
+
+        // Lectura en streaming: cada mensaje se añade según se lee, sin cargar el archivo entero
+        try (InputStream is = context.getAssets().open(archivo)) {
+            LectorEscenario.leer(is, tipo, mensajes::add);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return mensajes;
+    }
+}
+
+/**
+ * ============================================================
+ * 📦 Clase: GestorEscenario.java
+ * ============================================================
+ *
+ * Punto único de acceso al contenido del escenario (alertas y guías).
+ *
+ * Carga el escenario del **paquete activo** (ver `PaqueteEscenario`)
+ * una sola vez y guarda el resultado en un `CatalogoEscenario` compartido. A partir de ahí,
+ * el Controlador y las vistas consultan el catálogo en lugar de volver
+ * a abrir y parsear los archivos en cada avance o cambio de pestaña.
+ *
+ * ------------------------------------------------------------
+ * 🔁 Flujo
+ * ------------------------------------------------------------
+ *
+ *  1️⃣ Las vistas piden el catálogo con `cargarEnSegundoPlano()`; el login
+ *     lo precarga con `precargar()` mientras el usuario escribe.
+ *  2️⃣ Si el paquete se jugó hace poco, su catálogo sigue en el LRU de
+ *     `GestorPaquetes` y se reutiliza. Los paquetes instalados se leen de sus JSON.
+ *  3️⃣ Para la historia original se proyecta en memoria `escenario.bin` (compilado en el build a partir
+ *     de los JSON por la tarea `compilarEscenario`): sin parsear nada,
+ *     solo cabecera e índices; los mensajes se decodifican al consultarlos.
+ *  4️⃣ Si no existe, se leen `alertas.json` y `guias.json` en la misma tarea
+ *     (en streaming, con `LectorEscenario`) y se unen por día.
+ *  5️⃣ Se avisa a las vistas en el hilo principal (si se cambió de paquete
+ *     durante la carga, se espera a la del paquete nuevo).
+ *  6️⃣ Las siguientes llamadas devuelven la misma instancia al momento.
+ *     Nadie espera a la carga en el hilo principal: `catalogoCargado()` devuelve
+ *     null mientras tanto y `cargarEnSegundoPlano()` avisa al terminar.
+ *
+ * ============================================================
+ */
@@ -0,0 +1,312 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class GestorPaquetes {
+
+    private static final int MAX_PAQUETES_EN_MEMORIA = 3;   // catálogos analizados que se conservan
+
+    /**
+     * Se llama en el hilo principal con la lista de paquetes ya leída.
+     */
+    public interface AlListar {
+        void alListar(List<PaqueteEscenario> paquetes);
+    }
+
+    // Las instalaciones (descomprimir) nunca van en el hilo principal
+    private static final ExecutorService instalador = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "instalar-paquetes");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private static final Handler hiloPrincipal = new Handler(Looper.getMainLooper());
+
+    // Paquetes disponibles (solo metadatos); se vuelven a buscar al instalar uno.
+    // versionLista (con el candado de la clase) sube en cada instalación: una lectura
+    // empezada antes no llega a publicarse
+    private static volatile List<PaqueteEscenario> disponibles;
+    private static int versionLista;
+
+    // LRU de catálogos ya leídos: el acceso más reciente va al final y se descarta el primero
+    private static final Map<String, CatalogoEscenario> enMemoria =
+            new LinkedHashMap<String, CatalogoEscenario>(MAX_PAQUETES_EN_MEMORIA + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CatalogoEscenario> masAntiguo) {
+                    return size() > MAX_PAQUETES_EN_MEMORIA;
+                }
+            };
+
+    // ============================================================
+    // LISTAR PAQUETES (el predeterminado, los de /assets y los instalados)
+    // Lee /assets y los metadatos de cada paquete: nunca en el hilo principal.
+    // GestorEscenario la carga junto con el catálogo
+    // ============================================================
+    static List<PaqueteEscenario> listar(Context context) {
+        while (true) {
+            List<PaqueteEscenario> lista = disponibles;
+            if (lista != null) return lista;
+
+            int version;
+            synchronized (GestorPaquetes.class) {
+                version = versionLista;
+            }
+            List<PaqueteEscenario> leida = leerLista(context);
+            synchronized (GestorPaquetes.class) {
+                if (version == versionLista) {
+                    disponibles = leida;
+                    return leida;
+                }
+            }
+            // Se instaló un paquete mientras se leía: esta lista puede no tenerlo, se vuelve a leer
+        }
+    }
+
+    private static List<PaqueteEscenario> leerLista(Context context) {
+        List<PaqueteEscenario> lista = new ArrayList<>();
+        lista.add(PaqueteEscenario.predeterminado());
+
+        try {
+            String[] enAssets = context.getAssets().list(PaqueteEscenario.CARPETA);
+            if (enAssets != null) {
+                for (String carpeta : enAssets) {
+                    anadirSiValido(lista, () -> PaqueteEscenario.leerDeAssets(context, PaqueteEscenario.CARPETA + "/" + carpeta));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        File[] instalados = carpetaInstalados(context).listFiles(
+                archivo -> archivo.isDirectory() && !archivo.getName().startsWith("."));   // sin instalaciones a medias
+        if (instalados != null) {
+            for (File carpeta : instalados) {
+                anadirSiValido(lista, () -> PaqueteEscenario.leerDeCarpeta(carpeta));
+            }
+        }
+
+        return Collections.unmodifiableList(lista);
+    }
+
+    static PaqueteEscenario buscar(Context context, String id) {
+        for (PaqueteEscenario paquete : listar(context)) {
+            if (paquete.getId().equals(id)) return paquete;
+        }
+        return null;
+    }
+
+    /**
+     * Paquete que se está jugando (el predeterminado si el guardado ya no existe).
+     * No lee nada: usa la lista que se cargó con el catálogo. Si aún no está
+     * (no debería pasar, los sonidos llegan después del catálogo), se pide en
+     * segundo plano y mientras tanto vale el predeterminado.
+     */
+    public static PaqueteEscenario activo(Context context) {
+        List<PaqueteEscenario> lista = disponibles;
+        if (lista == null) {
+            Context aplicacion = context.getApplicationContext();
+            instalador.execute(() -> listar(aplicacion));
+            return PaqueteEscenario.predeterminado();
+        }
+        String id = AlmacenEstado.obtener(context).actual().getPaqueteActivo();
+        for (PaqueteEscenario paquete : lista) {
+            if (paquete.getId().equals(id)) return paquete;
+        }
+        return PaqueteEscenario.predeterminado();
+    }
+
+    private interface LecturaMetadatos {
+        PaqueteEscenario leer() throws Exception;
+    }
+
+    // Un paquete mal formado no impide ver los demás; si un id se repite gana el primero
+    private static void anadirSiValido(List<PaqueteEscenario> lista, LecturaMetadatos lectura) {
+        try {
+            PaqueteEscenario paquete = lectura.leer();
+            for (PaqueteEscenario otro : lista) {
+                if (otro.getId().equals(paquete.getId())) return;
+            }
+            lista.add(paquete);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ============================================================
+    // CATÁLOGOS EN MEMORIA (LRU)
+    // ============================================================
+    static synchronized CatalogoEscenario enMemoria(String id) {
+        return enMemoria.get(id);   // get() también lo marca como usado recientemente
+    }
+
+    static synchronized void guardarEnMemoria(String id, CatalogoEscenario catalogo) {
+        enMemoria.put(id, catalogo);
+    }
+
+    /**
+     * Lee alertas y guías del paquete y construye su índice por día.
+     * Solo se llama la primera vez que se juega (o si salió del LRU).
+     */
+    static CatalogoEscenario leerCatalogo(Context context, PaqueteEscenario paquete) throws IOException {
+        List<Mensaje> alertas = new ArrayList<>();
+        List<Mensaje> guias = new ArrayList<>();
+        try (InputStream is = paquete.abrir(context, PaqueteEscenario.ALERTAS)) {
+            LectorEscenario.leer(is, "alerta", alertas::add);
+        }
+        try (InputStream is = paquete.abrir(context, PaqueteEscenario.GUIAS)) {
+            LectorEscenario.leer(is, "guia", guias::add);
+        }
+        return new CatalogoEscenario(alertas, guias);
+    }
+
+    // ============================================================
+    // INSTALAR LOS .ZIP COPIADOS A Android/data/<app>/files/escenarios/
+    // Cada zip instalado se borra; al terminar se lee la lista (también en
+    // ese hilo) y se entrega en el hilo principal
+    // ============================================================
+    public static void instalarPendientes(Context context, AlListar alTerminar) {
+        Context aplicacion = context.getApplicationContext();
+        instalador.execute(() -> {
+            File carpeta = aplicacion.getExternalFilesDir(PaqueteEscenario.CARPETA);
+            File[] zips = carpeta != null ? carpeta.listFiles(archivo -> archivo.getName().endsWith(".zip")) : null;
+            if (zips != null) {
+                for (File zip : zips) {
+                    try {
+                        instalar(aplicacion, zip);
+                        zip.delete();
+                    } catch (Exception e) {
+                        e.printStackTrace();   // se queda ahí para poder revisarlo
+                    }
+                }
+            }
+            List<PaqueteEscenario> lista = listar(aplicacion);
+            hiloPrincipal.post(() -> alTerminar.alListar(lista));
+        });
+    }
+
+    // ============================================================
+    // INSTALAR UN PAQUETE DESDE UN .ZIP (en segundo plano)
+    // Se descomprime en getFilesDir()/escenarios/<id>/ y se comprueba que se lee
+    // ============================================================
+    public static PaqueteEscenario instalar(Context context, File zip) throws Exception {
+        File destinoTemporal = new File(carpetaInstalados(context), ".instalando-" + System.nanoTime());
+        try {
+            descomprimir(zip, destinoTemporal);
+            File contenido = raizDelPaquete(destinoTemporal);
+            PaqueteEscenario leido = PaqueteEscenario.leerDeCarpeta(contenido);
+
+            File destino = new File(carpetaInstalados(context), leido.getId());
+            if (!destino.getCanonicalPath().startsWith(carpetaInstalados(context).getCanonicalPath() + File.separator)) {
+                throw new IOException("Id de paquete no válido: " + leido.getId());
+            }
+            borrar(destino);   // reinstalar = sustituir la versión anterior
+            if (!contenido.renameTo(destino)) throw new IOException("No se pudo instalar " + leido.getId());
+
+            synchronized (GestorPaquetes.class) {
+                enMemoria.remove(leido.getId());
+                disponibles = null;
+                versionLista++;   // una lista que se esté leyendo ahora ya no se publica
+            }
+            // Si era el paquete que se está jugando, su catálogo publicado ya no vale
+            GestorEscenario.olvidar(leido.getId());
+            return PaqueteEscenario.leerDeCarpeta(destino);
+        } finally {
+            borrar(destinoTemporal);
+        }
+    }
+
+    private static void descomprimir(File zip, File destino) throws IOException {
+        String raiz = destino.getCanonicalPath() + File.separator;
+        byte[] bloque = new byte[8 * 1024];
+
+        try (ZipInputStream entrada = new ZipInputStream(new FileInputStream(zip))) {
+            ZipEntry elemento;
+            while ((elemento = entrada.getNextEntry()) != null) {
+                File archivo = new File(destino, elemento.getName());
+                // Nada fuera de la carpeta de destino ("../" en el nombre)
+                if (!archivo.getCanonicalPath().startsWith(raiz)) {
+                    throw new IOException("Entrada no válida en el zip: " + elemento.getName());
+                }
+                if (elemento.isDirectory()) {
+                    archivo.mkdirs();
+                    continue;
+                }
+                archivo.getParentFile().mkdirs();
+                try (OutputStream salida = new FileOutputStream(archivo)) {
+                    int leidos;
+                    while ((leidos = entrada.read(bloque)) != -1) salida.write(bloque, 0, leidos);
+                }
+            }
+        }
+    }
+
+    // El zip puede traer los archivos en la raíz o dentro de una única carpeta
+    private static File raizDelPaquete(File descomprimido) {
+        if (new File(descomprimido, PaqueteEscenario.METADATOS).exists()) return descomprimido;
+        File[] hijos = descomprimido.listFiles();
+        if (hijos != null && hijos.length == 1 && hijos[0].isDirectory()) return hijos[0];
+        return descomprimido;
+    }
+
+    private static File carpetaInstalados(Context context) {
+        File carpeta = new File(context.getFilesDir(), PaqueteEscenario.CARPETA);
+        carpeta.mkdirs();
+        return carpeta;
+    }
+
+    private static void borrar(File archivo) {
+        File[] hijos = archivo.listFiles();
+        if (hijos != null) for (File hijo : hijos) borrar(hijo);
+        archivo.delete();
+    }
+}
+
+/**
+ * ============================================================
+ * 🗃️ Clase: GestorPaquetes.java
+ * ============================================================
+ *
+ * Conoce todos los **paquetes de escenario** (historias) disponibles
+ * y guarda en memoria los que se han jugado hace poco.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - `listar()` busca paquetes en `/assets/escenarios/` y en
+ *    `getFilesDir()/escenarios/`. Solo lee los metadatos, y siempre fuera
+ *    del hilo principal (con el catálogo o al instalar); `activo()` solo
+ *    consulta la lista ya leída. Si se instala un paquete mientras se lee,
+ *    esa lectura no se publica y se repite (`versionLista`).
+ *  - Los mensajes y el índice por día de un paquete se leen la primera vez
+ *    que se juega (`leerCatalogo()`, lo llama `GestorEscenario`).
+ *  - Los catálogos leídos quedan en un LRU de `MAX_PAQUETES_EN_MEMORIA`:
+ *    volver a un paquete reciente es inmediato y los demás no ocupan memoria.
+ *  - `instalar(zip)` descomprime un paquete en almacenamiento privado
+ *    (sin permitir rutas fuera de la carpeta) y lo añade a la lista.
+ *    Si sustituye al paquete activo, `GestorEscenario` olvida su catálogo.
+ *    `instalarPendientes()` instala en su propio hilo los .zip que se hayan
+ *    copiado a `Android/data/<app>/files/escenarios/`.
+ *
+ * ============================================================
+ */
@@ -0,0 +1,353 @@
+package com.example.apocalipsisgranada.controlador;
+
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+public class LectorEscenario implements Closeable {
+
+    /**
+     * Recibe los mensajes de uno en uno, según se van leyendo del archivo.
+     */
+    public interface Receptor {
+        void recibir(Mensaje mensaje);
+    }
+
+    private static final int TAMANIO_BUFFER = 8 * 1024;
+
+    private final Reader entrada;
+    private final String tipo;
+    private final char[] buffer = new char[TAMANIO_BUFFER];
+    private final StringBuilder texto = new StringBuilder();   // se reutiliza para cada cadena
+
+    private int posicionBuffer = 0;
+    private int finBuffer = 0;
+    private long posicionArchivo = 0;   // solo para los mensajes de error
+    private boolean arrayAbierto = false;
+    private boolean terminado = false;
+
+    // ====== CONSTRUCTORES ======
+    public LectorEscenario(InputStream entrada, String tipo) {
+        this(new InputStreamReader(entrada, StandardCharsets.UTF_8), tipo);
+    }
+
+    public LectorEscenario(Reader entrada, String tipo) {
+        this.entrada = entrada;
+        this.tipo = tipo;
+    }
+
+    // ============================================================
+    // LEER TODO EL ARCHIVO (cómodo para los cargadores)
+    // ============================================================
+    public static void leer(InputStream entrada, String tipo, Receptor receptor) throws IOException {
+        try (LectorEscenario lector = new LectorEscenario(entrada, tipo)) {
+            Mensaje mensaje;
+            while ((mensaje = lector.siguiente()) != null) {
+                receptor.recibir(mensaje);
+            }
+        }
+    }
+
+    // ============================================================
+    // SIGUIENTE MENSAJE (null cuando se acaba el array)
+    // ============================================================
+    public Mensaje siguiente() throws IOException {
+        if (terminado) return null;
+
+        if (!arrayAbierto) {
+            esperar('[');
+            arrayAbierto = true;
+            if (siguienteSignificativo() == ']') {
+                consumir();
+                terminado = true;
+                return null;
+            }
+        } else {
+            int c = siguienteSignificativo();
+            if (c == ']') {
+                consumir();
+                terminado = true;
+                return null;
+            }
+            esperar(',');
+        }
+
+        return leerMensaje();
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+
+    // ============================================================
+    // LEER UN OBJETO { "dia": ..., "hora": ..., "mensaje": ..., "sonido": ... }
+    // ============================================================
+    private Mensaje leerMensaje() throws IOException {
+        esperar('{');
+
+        int dia = -1;
+        String hora = "";
+        String mensaje = null;
+        String sonido = "false";
+
+        if (siguienteSignificativo() == '}') {
+            consumir();
+        } else {
+            while (true) {
+                String clave = leerCadena();
+                esperar(':');
+
+                switch (clave) {
+                    case "dia":
+                        dia = leerEntero();
+                        break;
+                    case "hora":
+                        hora = leerValorComoTexto();
+                        break;
+                    case "mensaje":
+                        mensaje = leerValorComoTexto();
+                        break;
+                    case "sonido":
+                        sonido = leerValorComoTexto();
+                        break;
+                    default:
+                        saltarValor();   // campos desconocidos: se ignoran
+                        break;
+                }
+
+                int c = siguienteSignificativo();
+                consumir();
+                if (c == '}') break;
+                if (c != ',') throw error("se esperaba ',' o '}'");
+            }
+        }
+
+        if (dia < 0) throw error("falta el campo \"dia\"");
+        if (mensaje == null) throw error("falta el campo \"mensaje\"");
+
+        return new Mensaje(dia, hora, mensaje, sonido, tipo);
+    }
+
+    // ============================================================
+    // VALORES
+    // ============================================================
+    private int leerEntero() throws IOException {
+        int c = siguienteSignificativo();
+        if (c == '"') {
+            // Algunos escenarios guardan el día como texto ("3")
+            try {
+                return Integer.parseInt(leerCadena().trim());
+            } catch (NumberFormatException e) {
+                throw error("el día no es un número");
+            }
+        }
+
+        boolean negativo = false;
+        if (c == '-') {
+            negativo = true;
+            consumir();
+            c = leer();
+        } else {
+            consumir();
+        }
+        if (c < '0' || c > '9') throw error("se esperaba un número");
+
+        long valor = c - '0';
+        while (true) {
+            c = mirar();
+            if (c < '0' || c > '9') break;
+            consumir();
+            valor = valor * 10 + (c - '0');
+            if (valor > Integer.MAX_VALUE) throw error("número demasiado grande");
+        }
+        if (c == '.' || c == 'e' || c == 'E') throw error("el día debe ser un número entero");
+        return (int) (negativo ? -valor : valor);
+    }
+
+    /**
+     * Lee una cadena; también acepta true/false/null o números (p. ej. "sonido": true).
+     */
+    private String leerValorComoTexto() throws IOException {
+        int c = siguienteSignificativo();
+        if (c == '"') return leerCadena();
+        if (c == 'n') {
+            leerLiteral("null");
+            return "";
+        }
+        if (c == 't') {
+            leerLiteral("true");
+            return "true";
+        }
+        if (c == 'f') {
+            leerLiteral("false");
+            return "false";
+        }
+        return String.valueOf(leerEntero());
+    }
+
+    private String leerCadena() throws IOException {
+        esperar('"');
+        texto.setLength(0);
+
+        while (true) {
+            int c = leer();
+            if (c == '"') break;
+            if (c == '\\') {
+                int escape = leer();
+                switch (escape) {
+                    case '"': texto.append('"'); break;
+                    case '\\': texto.append('\\'); break;
+                    case '/': texto.append('/'); break;
+                    case 'b': texto.append('\b'); break;
+                    case 'f': texto.append('\f'); break;
+                    case 'n': texto.append('\n'); break;
+                    case 'r': texto.append('\r'); break;
+                    case 't': texto.append('\t'); break;
+                    case 'u': texto.append(leerUnicode()); break;
+                    default: throw error("secuencia de escape no válida");
+                }
+            } else {
+                texto.append((char) c);
+            }
+        }
+
+        return texto.toString();
+    }
+
+    private char leerUnicode() throws IOException {
+        int valor = 0;
+        for (int i = 0; i < 4; i++) {
+            int c = leer();
+            int digito = Character.digit(c, 16);
+            if (digito < 0) throw error("secuencia \\u no válida");
+            valor = (valor << 4) | digito;
+        }
+        return (char) valor;
+    }
+
+    private void leerLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (leer() != literal.charAt(i)) throw error("se esperaba " + literal);
+        }
+    }
+
+    /**
+     * Salta un valor cualquiera (objeto, array, cadena, número o literal) sin guardarlo.
+     */
+    private void saltarValor() throws IOException {
+        int c = siguienteSignificativo();
+        if (c == '"') {
+            leerCadena();
+        } else if (c == '{' || c == '[') {
+            int profundidad = 0;
+            do {
+                c = leer();
+                if (c == '"') {
+                    // volvemos a poner la comilla para reutilizar leerCadena()
+                    posicionBuffer--;
+                    posicionArchivo--;
+                    leerCadena();
+                } else if (c == '{' || c == '[') {
+                    profundidad++;
+                } else if (c == '}' || c == ']') {
+                    profundidad--;
+                }
+            } while (profundidad > 0);
+        } else {
+            // número o literal: hasta el siguiente separador
+            while (true) {
+                c = mirar();
+                if (c == ',' || c == '}' || c == ']' || c == -1 || Character.isWhitespace(c)) break;
+                consumir();
+            }
+        }
+    }
+
+    // ============================================================
+    // LECTURA DE CARACTERES (con buffer propio de tamaño fijo)
+    // ============================================================
+    private int mirar() throws IOException {
+        if (posicionBuffer == finBuffer) {
+            finBuffer = entrada.read(buffer, 0, buffer.length);
+            posicionBuffer = 0;
+            if (finBuffer <= 0) {
+                finBuffer = 0;
+                return -1;
+            }
+        }
+        return buffer[posicionBuffer];
+    }
+
+    private void consumir() {
+        posicionBuffer++;
+        posicionArchivo++;
+    }
+
+    private int leer() throws IOException {
+        int c = mirar();
+        if (c == -1) throw error("fin de archivo inesperado");
+        consumir();
+        return c;
+    }
+
+    private int siguienteSignificativo() throws IOException {
+        int c = mirar();
+        while (c != -1 && Character.isWhitespace(c)) {
+            consumir();
+            c = mirar();
+        }
+        if (c == -1) throw error("fin de archivo inesperado");
+        return c;
+    }
+
+    private void esperar(char esperado) throws IOException {
+        int c = siguienteSignificativo();
+        if (c != esperado) throw error("se esperaba '" + esperado + "'");
+        consumir();
+    }
+
+    private IOException error(String detalle) {
+        return new IOException("JSON de escenario mal formado (" + detalle + ") en la posición " + posicionArchivo);
+    }
+}
+
+/**
+ * ============================================================
+ * 📖 Clase: LectorEscenario.java
+ * ============================================================
+ *
+ * Lector **en streaming** de los archivos de escenario (`alertas.json`, `guias.json`).
+ *
+ * En lugar de cargar el archivo entero en un `byte[]`, pasarlo a `String`
+ * y construir un `JSONArray` completo, recorre el texto carácter a carácter
+ * con un buffer fijo de 8 KB y va entregando los `Mensaje` de uno en uno.
+ * La memoria extra no depende del tamaño del archivo.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Uso
+ * ------------------------------------------------------------
+ *
+ *  - `siguiente()` → devuelve el siguiente mensaje o `null` al terminar.
+ *  - `leer(entrada, tipo, receptor)` → recorre todo el archivo y llama al receptor.
+ *
+ * ------------------------------------------------------------
+ * 🗂️ Campos reconocidos
+ * ------------------------------------------------------------
+ *
+ *  - `dia` (obligatorio) → número entero (también se acepta "3").
+ *  - `mensaje` (obligatorio) → texto de la alerta o guía.
+ *  - `hora` (opcional) → por defecto "".
+ *  - `sonido` (opcional) → por defecto "false".
+ *  - Cualquier otro campo se salta sin guardarlo.
+ *
+ * Si el JSON está mal formado lanza una `IOException` con la posición del error;
+ * los mensajes entregados antes del error siguen siendo válidos.
+ *
+ * ============================================================
+ */
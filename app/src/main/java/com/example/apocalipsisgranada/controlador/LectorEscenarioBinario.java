@@ -0,0 +1,183 @@
+package com.example.apocalipsisgranada.controlador;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class LectorEscenarioBinario implements CatalogoEscenario.Fuente {
+
+    // Debe coincidir con la tarea compilarEscenario de app/build.gradle.kts
+    public static final int MAGIA = 0x41504F43;   // "APOC"
+    public static final int VERSION = 1;
+    public static final String ARCHIVO = "escenario.bin";
+
+    private static final int TAMANIO_CABECERA = 5 * 4;
+
+    private final ByteBuffer datos;
+    private final int totalAlertas;
+    private final int tablaDesplazamientos;   // posición de la tabla de desplazamientos de cada registro
+    private final int inicioRegistros;        // posición del primer registro
+    private final int[] inicioAlertas;        // mismos índices por día que el catálogo
+    private final int[] inicioGuias;
+
+    // Mensajes ya decodificados (por días enteros): cada uno se crea una sola vez y
+    // después siempre se devuelve el mismo objeto, sin volver a tocar el buffer
+    private final AtomicReferenceArray<Mensaje> decodificados;
+
+    private LectorEscenarioBinario(ByteBuffer datos, int totalAlertas, int tablaDesplazamientos, int inicioRegistros,
+                                   int[] inicioAlertas, int[] inicioGuias) {
+        this.datos = datos;
+        this.totalAlertas = totalAlertas;
+        this.tablaDesplazamientos = tablaDesplazamientos;
+        this.inicioRegistros = inicioRegistros;
+        this.inicioAlertas = inicioAlertas;
+        this.inicioGuias = inicioGuias;
+        this.decodificados = new AtomicReferenceArray<>(totalAlertas + inicioGuias[inicioGuias.length - 1]);
+    }
+
+    // ============================================================
+    // LEER CABECERA E ÍNDICES (los mensajes se decodifican bajo demanda)
+    // ============================================================
+    public static CatalogoEscenario leerCatalogo(ByteBuffer datos) throws IOException {
+        if (datos.limit() < TAMANIO_CABECERA) throw new IOException("Escenario compilado demasiado corto");
+        if (datos.getInt(0) != MAGIA) throw new IOException("No es un escenario compilado");
+        if (datos.getInt(4) != VERSION) throw new IOException("Versión de escenario no soportada: " + datos.getInt(4));
+
+        int ultimoDia = datos.getInt(8);
+        int totalAlertas = datos.getInt(12);
+        int totalGuias = datos.getInt(16);
+        if (ultimoDia < 0 || totalAlertas < 0 || totalGuias < 0) throw new IOException("Cabecera no válida");
+
+        int entradasDia = ultimoDia + 2;
+        long tablaDesplazamientos = TAMANIO_CABECERA + 2L * entradasDia * 4;
+        long inicioRegistros = tablaDesplazamientos + (long) (totalAlertas + totalGuias) * 4;
+        if (inicioRegistros > datos.limit()) throw new IOException("Escenario compilado truncado");
+
+        int[] inicioAlertas = leerIndice(datos, TAMANIO_CABECERA, entradasDia);
+        int[] inicioGuias = leerIndice(datos, TAMANIO_CABECERA + entradasDia * 4, entradasDia);
+        if (inicioAlertas[entradasDia - 1] != totalAlertas || inicioGuias[entradasDia - 1] != totalGuias) {
+            throw new IOException("Índice de días incoherente");
+        }
+
+        LectorEscenarioBinario lector = new LectorEscenarioBinario(
+                datos, totalAlertas, (int) tablaDesplazamientos, (int) inicioRegistros, inicioAlertas, inicioGuias);
+        return new CatalogoEscenario(inicioAlertas, inicioGuias, lector);
+    }
+
+    private static int[] leerIndice(ByteBuffer datos, int desde, int entradas) {
+        int[] indice = new int[entradas];
+        for (int i = 0; i < entradas; i++) {
+            indice[i] = datos.getInt(desde + i * 4);
+        }
+        return indice;
+    }
+
+    // ============================================================
+    // LEER UN MENSAJE (posición global: alertas y luego guías)
+    // La primera vez se decodifica su día entero; después no se reserva nada
+    // ============================================================
+    @Override
+    public Mensaje leer(int posicion) {
+        Mensaje mensaje = decodificados.get(posicion);
+        if (mensaje == null) {
+            decodificarDia(posicion);
+            mensaje = decodificados.get(posicion);
+        }
+        return mensaje;
+    }
+
+    // Decodifica todas las alertas (o guías) del día al que pertenece `posicion`
+    private synchronized void decodificarDia(int posicion) {
+        if (decodificados.get(posicion) != null) return;   // otro hilo ya lo hizo
+
+        boolean esAlerta = posicion < totalAlertas;
+        int[] indice = esAlerta ? inicioAlertas : inicioGuias;
+        int base = esAlerta ? 0 : totalAlertas;
+        int dia = diaDe(indice, posicion - base);
+
+        for (int p = base + indice[dia]; p < base + indice[dia + 1]; p++) {
+            if (decodificados.get(p) == null) decodificados.set(p, decodificar(p));
+        }
+    }
+
+    // Último día cuyo primer mensaje está en `relativa` o antes (los días vacíos comparten inicio)
+    private static int diaDe(int[] indice, int relativa) {
+        int bajo = 0;
+        int alto = indice.length - 2;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (indice[medio] <= relativa) bajo = medio;
+            else alto = medio - 1;
+        }
+        return bajo;
+    }
+
+    // ============================================================
+    // DECODIFICAR UN REGISTRO
+    // Registro: dia (int) + hora, texto y sonido (longitud int + UTF-8)
+    // ============================================================
+    private Mensaje decodificar(int posicion) {
+        int registro = inicioRegistros + datos.getInt(tablaDesplazamientos + posicion * 4);
+
+        // Copia del buffer para leer con posición propia (varios hilos pueden leer a la vez)
+        ByteBuffer lectura = datos.duplicate();
+        lectura.position(registro);
+
+        int dia = lectura.getInt();
+        String hora = leerTexto(lectura);
+        String texto = leerTexto(lectura);
+        String sonido = leerTexto(lectura);
+
+        Mensaje mensaje = new Mensaje(dia, hora, texto, sonido, posicion < totalAlertas ? "alerta" : "guia");
+        mensaje.setId(posicion);
+        return mensaje;
+    }
+
+    private static String leerTexto(ByteBuffer lectura) {
+        int longitud = lectura.getInt();
+        if (longitud == 0) return "";
+        byte[] bytes = new byte[longitud];
+        lectura.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
+
+/**
+ * ============================================================
+ * 💾 Clase: LectorEscenarioBinario.java
+ * ============================================================
+ *
+ * Lee el escenario **compilado en tiempo de build** (`escenario.bin`),
+ * que genera la tarea Gradle `compilarEscenario` a partir de
+ * `alertas.json` y `guias.json`.
+ *
+ * Así, al arrancar la app no hace falta parsear JSON: solo se leen la cabecera
+ * y los índices por día. Los mensajes se decodifican por días, la primera vez
+ * que se consulta alguno de ese día, y se guardan: a partir de ahí cada consulta
+ * devuelve el mismo `Mensaje`, sin tocar el buffer ni reservar memoria.
+ *
+ * ------------------------------------------------------------
+ * 🗂️ Formato (enteros de 4 bytes, big-endian)
+ * ------------------------------------------------------------
+ *
+ *  Cabecera:
+ *   - MAGIA ("APOC") · VERSION · ultimoDia · totalAlertas · totalGuias
+ *
+ *  Índices por día (ultimoDia + 2 entradas cada uno):
+ *   - inicioAlertas[d] → primera alerta con día >= d
+ *   - inicioGuias[d]   → primera guía con día >= d
+ *     (los mensajes del día d son el tramo [inicio[d], inicio[d + 1]))
+ *
+ *  Tabla de desplazamientos:
+ *   - un entero por mensaje (alertas y luego guías) con la posición
+ *     de su registro dentro de la zona de registros.
+ *
+ *  Registros:
+ *   - dia · hora · texto · sonido (cada texto: longitud + bytes UTF-8)
+ *
+ * ============================================================
+ */
@@ -0,0 +1,214 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Trace;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Metricas {
+
+    // ====== SECCIONES (mismo nombre en Perfetto/systrace y en la barra de desarrollador) ======
+    public static final String CARGA_ESCENARIO = "escenario.cargar";
+    public static final String AVANZAR = "avanzar";
+    public static final String MOSTRAR_MENSAJES = "mostrarMensajes";
+    public static final String PINTAR_TARJETA = "onBindViewHolder";
+    public static final String NOTIFICAR = "notificacion";
+    public static final String AUDIO_CORTO = "audio.corto";
+    public static final String AUDIO_LARGO = "audio.largo";   // desde que se pide hasta que empieza a sonar
+
+    // ====== CONTADORES ======
+    public static final String NOTIFICACION_AGRUPADA = "notificacion.agrupada";
+    public static final String AUDIO_EN_ESPERA = "audio.enEspera";
+    public static final String PAQUETE_DESDE_LRU = "paquete.desdeLRU";
+
+    private static final int MUESTRAS_POR_SERIE = 1024;   // últimas N medidas de cada sección
+    private static final double NANOS_POR_MS = 1_000_000.0;
+
+    private static final Map<String, Serie> series = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+
+    // ============================================================
+    // MEDIR UNA SECCIÓN (mismo hilo al empezar y al terminar)
+    //   long inicio = Metricas.empezar(Metricas.AVANZAR);
+    //   try { ... } finally { Metricas.terminar(Metricas.AVANZAR, inicio); }
+    // ============================================================
+    public static long empezar(String seccion) {
+        Trace.beginSection(seccion);
+        return System.nanoTime();
+    }
+
+    public static void terminar(String seccion, long inicio) {
+        long duracion = System.nanoTime() - inicio;
+        Trace.endSection();
+        anotar(seccion, duracion);
+    }
+
+    /**
+     * Anota una duración medida a mano (por ejemplo, entre dos hilos, donde no se puede usar Trace).
+     */
+    public static void anotar(String seccion, long nanos) {
+        Serie serie = series.get(seccion);
+        if (serie == null) serie = series.computeIfAbsent(seccion, nombre -> new Serie(MUESTRAS_POR_SERIE));
+        serie.anotar(nanos);
+    }
+
+    public static void contar(String contador) {
+        LongAdder valor = contadores.get(contador);
+        if (valor == null) valor = contadores.computeIfAbsent(contador, nombre -> new LongAdder());
+        valor.increment();
+    }
+
+    public static void borrar() {
+        series.clear();
+        contadores.clear();
+    }
+
+    // ============================================================
+    // RESUMEN PARA LA BARRA DE DESARROLLADOR
+    // "avanzar          n=12   p50 0,81   p99 3,10 ms"
+    // ============================================================
+    public static String resumen() {
+        StringBuilder texto = new StringBuilder();
+        for (String nombre : ordenados(series.keySet())) {
+            Serie serie = series.get(nombre);
+            if (serie == null) continue;   // borrada mientras tanto
+            long[] percentiles = serie.percentiles(0.50, 0.99);
+            texto.append(String.format(Locale.getDefault(), "%-18s n=%-5d p50 %6.2f  p99 %6.2f ms\n",
+                    nombre, serie.getTotal(), percentiles[0] / NANOS_POR_MS, percentiles[1] / NANOS_POR_MS));
+        }
+        for (String nombre : ordenados(contadores.keySet())) {
+            LongAdder valor = contadores.get(nombre);
+            if (valor != null) texto.append(String.format(Locale.getDefault(), "%-18s %d\n", nombre, valor.sum()));
+        }
+        if (texto.length() == 0) return "Sin medidas todavía";
+        texto.setLength(texto.length() - 1);   // sin el último salto de línea
+        return texto.toString();
+    }
+
+    // ============================================================
+    // VOLCAR A ARCHIVO (CSV, para comparar entre versiones o dispositivos)
+    // Android/data/<app>/files/metricas/metricas-AAAAMMDD-HHMMSS.csv
+    // ============================================================
+    public static File volcar(Context context) throws IOException {
+        File archivo = archivoNuevo(context, "metricas");
+
+        try (Writer salida = new FileWriter(archivo)) {
+            salida.write("# " + Build.MANUFACTURER + " " + Build.MODEL + " · API " + Build.VERSION.SDK_INT + "\n");
+            salida.write("seccion,n,p50_ms,p90_ms,p99_ms,max_ms\n");
+            for (String nombre : ordenados(series.keySet())) {
+                Serie serie = series.get(nombre);
+                if (serie == null) continue;
+                long[] p = serie.percentiles(0.50, 0.90, 0.99, 1.0);
+                salida.write(String.format(Locale.US, "%s,%d,%.3f,%.3f,%.3f,%.3f\n", nombre, serie.getTotal(),
+                        p[0] / NANOS_POR_MS, p[1] / NANOS_POR_MS, p[2] / NANOS_POR_MS, p[3] / NANOS_POR_MS));
+            }
+            salida.write("contador,n\n");
+            for (String nombre : ordenados(contadores.keySet())) {
+                LongAdder valor = contadores.get(nombre);
+                if (valor != null) salida.write(nombre + "," + valor.sum() + "\n");
+            }
+        }
+        return archivo;
+    }
+
+    // Android/data/<app>/files/metricas/<prefijo>-AAAAMMDD-HHMMSS.csv (también lo usa MonitorFotogramas)
+    static File archivoNuevo(Context context, String prefijo) {
+        File carpeta = context.getExternalFilesDir("metricas");
+        if (carpeta == null) carpeta = new File(context.getFilesDir(), "metricas");
+        carpeta.mkdirs();
+
+        String marca = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
+        return new File(carpeta, prefijo + "-" + marca + ".csv");
+    }
+
+    private static List<String> ordenados(Set<String> nombres) {
+        List<String> lista = new ArrayList<>(nombres);
+        Collections.sort(lista);
+        return lista;
+    }
+
+    // ============================================================
+    // SERIE: anillo con las últimas medidas de una sección
+    // Los percentiles se calculan al pedirlos (copiar y ordenar ≤ 1024 valores)
+    // ============================================================
+    static final class Serie {
+        private final long[] muestras;
+        private long total = 0;   // medidas anotadas desde el principio (no solo las del anillo)
+
+        Serie(int capacidad) {
+            muestras = new long[capacidad];
+        }
+
+        synchronized void anotar(long nanos) {
+            muestras[(int) (total % muestras.length)] = nanos;
+            total++;
+        }
+
+        synchronized long getTotal() {
+            return total;
+        }
+
+        /**
+         * Percentiles (0–1) de las medidas que quedan en el anillo, por el método del rango más cercano.
+         */
+        long[] percentiles(double... cuantiles) {
+            long[] copia;
+            synchronized (this) {
+                copia = Arrays.copyOf(muestras, (int) Math.min(total, muestras.length));
+            }
+            Arrays.sort(copia);
+
+            long[] resultado = new long[cuantiles.length];
+            if (copia.length == 0) return resultado;
+            for (int i = 0; i < cuantiles.length; i++) {
+                int posicion = (int) Math.ceil(cuantiles[i] * copia.length) - 1;
+                resultado[i] = copia[Math.max(0, Math.min(copia.length - 1, posicion))];
+            }
+            return resultado;
+        }
+    }
+}
+
+/**
+ * ============================================================
+ * ⏱️ Clase: Metricas.java
+ * ============================================================
+ *
+ * Mide lo que cuestan los **caminos calientes** de la app, dentro del
+ * propio proceso y también para las herramientas del sistema.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - `empezar()` / `terminar()` abren y cierran una sección de `android.os.Trace`
+ *    (se ve en Perfetto) y anotan la duración en la serie de esa sección.
+ *  - Cada serie guarda las últimas `MUESTRAS_POR_SERIE` medidas en un anillo;
+ *    p50/p99 se calculan solo cuando alguien los pide.
+ *  - `contar()` lleva contadores sueltos (notificaciones agrupadas,
+ *    sonidos pedidos antes de estar cargados, paquetes servidos desde el LRU).
+ *  - `resumen()` lo muestra la barra del modo desarrollador (`ManejadorVistas`),
+ *    que se refresca cada segundo.
+ *  - `volcar()` escribe un CSV con p50/p90/p99/máx para comparar fuera de la app.
+ *
+ * Secciones medidas: carga del escenario, `avanzarDiaComun`,
+ * `mostrarMensajesIniciales`, `onBindViewHolder`, envío de notificaciones
+ * y arranque de sonidos (cortos y largos).
+ *
+ * ============================================================
+ */
@@ -0,0 +1,290 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.view.FrameMetrics;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class MonitorFotogramas {
+
+    // ====== ACCIONES (a qué se atribuye un fotograma lento) ======
+    public static final String AVANZAR = "avanzar";
+    public static final String SALTO = "salto";
+    public static final String REINICIAR = "reiniciar";
+    public static final String PESTANA = "pestaña";
+    public static final String PAQUETE = "paquete";
+    private static final String DESPLAZAR = "scroll";
+    private static final String OTRA = "otra";
+
+    private static final long VENTANA_ACCION_MS = 700;   // los fotogramas de después de una acción son "suyos"
+    private static final int MAX_REGISTRO = 200;          // últimos fotogramas lentos que se guardan
+
+    // Cubetas del histograma (duración total del fotograma, en ms): <8, <16, <24, <33, <50, <100, ≥100
+    private static final int[] LIMITES_MS = {8, 16, 24, 33, 50, 100};
+
+    private static Context aplicacion;
+    private static HandlerThread hilo;   // FrameMetrics se entrega aquí, no en el hilo principal
+    private static Handler manejador;
+
+    // ====== ATRIBUCIÓN ======
+    private static volatile String ultimaAccion = OTRA;
+    private static volatile long momentoAccion = 0;
+    private static volatile int listasDesplazandose = 0;   // listas con scroll en curso (hilo principal escribe)
+
+    // ====== DATOS (se tocan desde el hilo "fotogramas" y al leerlos: candado de la clase) ======
+    private static final Map<String, long[]> histogramas = new LinkedHashMap<>();   // pantalla → cubetas + [lentos]
+    private static final ArrayDeque<String> registro = new ArrayDeque<>();
+    private static final SimpleDateFormat hora = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US);
+
+    // Pantalla visible y pantalla observada ahora mismo (solo hilo principal)
+    private static Activity enPrimerPlano;
+    private static Activity observada;
+    private static Window.OnFrameMetricsAvailableListener oyente;
+    private static final List<RecyclerView> listasObservadas = new ArrayList<>();
+    private static final Set<RecyclerView> enMovimiento = new HashSet<>();
+
+    // ============================================================
+    // INICIAR (se engancha solo a cada pantalla que se muestra en modo desarrollador)
+    // ============================================================
+    public static void iniciar(Context context) {
+        if (aplicacion != null) return;
+        aplicacion = context.getApplicationContext();
+        if (aplicacion instanceof Application) {
+            ((Application) aplicacion).registerActivityLifecycleCallbacks(alCambiarPantalla);
+        }
+    }
+
+    /**
+     * Empieza o deja de observar la pantalla según el modo desarrollador (al activarlo o desactivarlo).
+     * Las secciones que no se ven también reciben el cambio de modo, pero solo se observa la visible.
+     */
+    public static void actualizar(Activity activity) {
+        boolean modoDev = AlmacenEstado.obtener(activity).actual().isModoDesarrollador();
+        if (modoDev && observada != activity && enPrimerPlano == activity) observar(activity);
+        else if (!modoDev && observada == activity) dejarDeObservar();
+    }
+
+    /**
+     * Los fotogramas de los próximos `VENTANA_ACCION_MS` se atribuyen a esta acción.
+     */
+    public static void marcarAccion(String accion) {
+        ultimaAccion = accion;
+        momentoAccion = SystemClock.uptimeMillis();
+    }
+
+    // ============================================================
+    // OBSERVAR UNA PANTALLA
+    // ============================================================
+    private static void observar(Activity activity) {
+        dejarDeObservar();
+
+        if (hilo == null) {
+            hilo = new HandlerThread("fotogramas");
+            hilo.start();
+            manejador = new Handler(hilo.getLooper());
+        }
+
+        String pantalla = activity.getClass().getSimpleName();
+        float hz = activity.getWindowManager().getDefaultDisplay().getRefreshRate();
+        long presupuestoNs = (long) (1_000_000_000L / (hz > 0 ? hz : 60f));
+
+        oyente = (ventana, metricas, descartados) -> anotar(pantalla, metricas.getMetric(FrameMetrics.TOTAL_DURATION), presupuestoNs);
+        activity.getWindow().addOnFrameMetricsAvailableListener(oyente, manejador);
+        observada = activity;
+
+        // El scroll de cualquier lista de la pantalla cuenta como acción mientras dura
+        buscarListas(activity.getWindow().getDecorView(), listasObservadas);
+        for (int i = 0; i < listasObservadas.size(); i++) {
+            listasObservadas.get(i).addOnScrollListener(alDesplazar);
+        }
+    }
+
+    private static void dejarDeObservar() {
+        if (observada == null) return;
+        try {
+            observada.getWindow().removeOnFrameMetricsAvailableListener(oyente);
+        } catch (IllegalArgumentException e) {
+            // ya se había quitado
+        }
+        for (int i = 0; i < listasObservadas.size(); i++) {
+            listasObservadas.get(i).removeOnScrollListener(alDesplazar);
+        }
+        listasObservadas.clear();
+        enMovimiento.clear();
+        listasDesplazandose = 0;
+        observada = null;
+        oyente = null;
+    }
+
+    private static void buscarListas(View vista, List<RecyclerView> encontradas) {
+        if (vista instanceof RecyclerView) {
+            encontradas.add((RecyclerView) vista);
+        } else if (vista instanceof ViewGroup) {
+            ViewGroup grupo = (ViewGroup) vista;
+            for (int i = 0; i < grupo.getChildCount(); i++) buscarListas(grupo.getChildAt(i), encontradas);
+        }
+    }
+
+    private static final RecyclerView.OnScrollListener alDesplazar = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView lista, int estado) {
+            if (estado == RecyclerView.SCROLL_STATE_IDLE) enMovimiento.remove(lista);
+            else enMovimiento.add(lista);
+            listasDesplazandose = enMovimiento.size();
+        }
+    };
+
+    // ============================================================
+    // ANOTAR UN FOTOGRAMA (hilo "fotogramas")
+    // ============================================================
+    private static void anotar(String pantalla, long duracionNs, long presupuestoNs) {
+        long ms = duracionNs / 1_000_000;
+        int cubeta = 0;
+        while (cubeta < LIMITES_MS.length && ms >= LIMITES_MS[cubeta]) cubeta++;
+
+        synchronized (MonitorFotogramas.class) {
+            long[] histograma = histogramas.get(pantalla);
+            if (histograma == null) {
+                histograma = new long[LIMITES_MS.length + 2];   // cubetas + total de lentos
+                histogramas.put(pantalla, histograma);
+            }
+            histograma[cubeta]++;
+
+            if (duracionNs <= presupuestoNs) return;
+            histograma[LIMITES_MS.length + 1]++;
+
+            if (registro.size() == MAX_REGISTRO) registro.removeFirst();
+            registro.addLast(String.format(Locale.US, "%s,%s,%.2f,%.2f,%s",
+                    hora.format(new Date()),
+                    pantalla, duracionNs / 1e6, presupuestoNs / 1e6, accionActual()));
+        }
+    }
+
+    private static String accionActual() {
+        if (SystemClock.uptimeMillis() - momentoAccion <= VENTANA_ACCION_MS) return ultimaAccion;
+        return listasDesplazandose > 0 ? DESPLAZAR : OTRA;
+    }
+
+    // ============================================================
+    // RESUMEN (barra de desarrollador) Y EXPORTAR
+    // ============================================================
+    public static synchronized String resumen() {
+        StringBuilder texto = new StringBuilder();
+        for (Map.Entry<String, long[]> entrada : histogramas.entrySet()) {
+            long[] h = entrada.getValue();
+            long total = 0;
+            for (int i = 0; i <= LIMITES_MS.length; i++) total += h[i];
+            long lentos = h[LIMITES_MS.length + 1];
+            texto.append(String.format(Locale.getDefault(), "%-18s %d fot.  %d lentos (%.1f%%)\n",
+                    entrada.getKey(), total, lentos, total == 0 ? 0 : 100.0 * lentos / total));
+        }
+        if (!registro.isEmpty()) texto.append("último lento: ").append(registro.peekLast()).append('\n');
+        if (texto.length() > 0) texto.setLength(texto.length() - 1);
+        return texto.toString();
+    }
+
+    public static synchronized void borrar() {
+        histogramas.clear();
+        registro.clear();
+    }
+
+    /**
+     * CSV con el histograma de cada pantalla y el registro de fotogramas lentos.
+     */
+    public static synchronized File volcar(Context context) throws IOException {
+        File archivo = Metricas.archivoNuevo(context, "fotogramas");
+        try (Writer salida = new FileWriter(archivo)) {
+            StringBuilder cabecera = new StringBuilder("pantalla");
+            for (int limite : LIMITES_MS) cabecera.append(",<").append(limite).append("ms");
+            cabecera.append(",>=").append(LIMITES_MS[LIMITES_MS.length - 1]).append("ms,lentos\n");
+            salida.write(cabecera.toString());
+
+            for (Map.Entry<String, long[]> entrada : histogramas.entrySet()) {
+                StringBuilder fila = new StringBuilder(entrada.getKey());
+                for (long valor : entrada.getValue()) fila.append(',').append(valor);
+                salida.write(fila.append('\n').toString());
+            }
+
+            salida.write("hora,pantalla,ms,presupuesto_ms,accion\n");
+            for (String linea : registro) salida.write(linea + "\n");
+        }
+        return archivo;
+    }
+
+    // ============================================================
+    // CICLO DE VIDA: solo se observa la pantalla visible
+    // ============================================================
+    private static final Application.ActivityLifecycleCallbacks alCambiarPantalla = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityResumed(Activity activity) {
+            enPrimerPlano = activity;
+            actualizar(activity);
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+            if (enPrimerPlano == activity) enPrimerPlano = null;
+            if (observada == activity) dejarDeObservar();
+        }
+
+        @Override public void onActivityCreated(Activity activity, Bundle estadoGuardado) {}
+        @Override public void onActivityStarted(Activity activity) {}
+        @Override public void onActivityStopped(Activity activity) {}
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle estadoSalida) {}
+        @Override public void onActivityDestroyed(Activity activity) {}
+    };
+}
+
+/**
+ * ============================================================
+ * 🎞️ Clase: MonitorFotogramas.java
+ * ============================================================
+ *
+ * Vigila los **fotogramas** de cada pantalla en modo desarrollador:
+ * cuánto tarda cada uno y cuáles se pasan del presupuesto (1 / tasa de refresco).
+ *
+ * `Metricas` mide métodos concretos; esto mide lo que ve el usuario
+ * (al desplazarse, reconstruir la lista, cambiar de pestaña...).
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - Se engancha con `Window.addOnFrameMetricsAvailableListener` a la pantalla
+ *    visible (solo en modo desarrollador) y lo recibe en su propio hilo.
+ *  - Cada pantalla tiene su histograma de duraciones (<8, <16, <24, <33,
+ *    <50, <100, ≥100 ms) y su cuenta de fotogramas lentos.
+ *  - Los lentos van a un registro circular (`MAX_REGISTRO`) con la acción que
+ *    los provocó: la última marcada con `marcarAccion()` (avanzar, salto,
+ *    reiniciar, pestaña, paquete) si fue hace menos de `VENTANA_ACCION_MS`,
+ *    o "scroll" si alguna lista se está desplazando.
+ *  - `resumen()` sale en la barra de desarrollador y `volcar()` escribe un CSV
+ *    junto al de `Metricas` (al tocar la barra).
+ *
+ * ============================================================
+ */
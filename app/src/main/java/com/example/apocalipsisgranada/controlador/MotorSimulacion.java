@@ -0,0 +1,230 @@
+package com.example.apocalipsisgranada.controlador;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reglas de la simulación sin APIs de Android: solo usa `EstadoSimulacion`,
+ * `CatalogoEscenario` y `Mensaje`, así que se ejecuta y prueba en la JVM sin
+ * dispositivo. (`Mensaje.obtenerRecursoSonido()` devuelve ids de `R.raw`, que
+ * son constantes generadas; el motor no los usa.)
+ */
+public final class MotorSimulacion {
+
+    public static final int DIA_SOS = 14;       // último día de la historia
+    public static final int HORA_SOS = 23;      // hora real a la que se activa la linterna
+    public static final String TEXTO_SOS = "SOS";
+
+    /**
+     * Qué hacer con las alertas que quedan por el camino al avanzar varios pasos de golpe.
+     */
+    public enum Intermedias {
+        SUPRIMIR,   // no se avisa de ellas (solo suena y se notifica la alerta final)
+        AGRUPAR     // además, un único resumen con todas las saltadas
+    }
+
+    /**
+     * Efecto que la app debe ejecutar tras un paso (el motor no lo ejecuta).
+     */
+    public static final class Comando {
+        public enum Tipo { SONIDO, NOTIFICAR, LINTERNA, RESUMEN }
+
+        private final Tipo tipo;
+        private final Mensaje mensaje;          // SONIDO y NOTIFICAR
+        private final int indice;               // NOTIFICAR: índice de la alerta dentro del día
+        private final String texto;             // LINTERNA: texto a emitir en Morse
+        private final List<Mensaje> mensajes;   // RESUMEN: alertas saltadas, de la más antigua a la más nueva
+
+        private Comando(Tipo tipo, Mensaje mensaje, int indice, String texto, List<Mensaje> mensajes) {
+            this.tipo = tipo;
+            this.mensaje = mensaje;
+            this.indice = indice;
+            this.texto = texto;
+            this.mensajes = mensajes;
+        }
+
+        public Tipo getTipo() { return tipo; }
+        public Mensaje getMensaje() { return mensaje; }
+        public int getIndice() { return indice; }
+        public String getTexto() { return texto; }
+        public List<Mensaje> getMensajes() { return mensajes; }
+    }
+
+    /**
+     * Resultado de un paso: el estado nuevo y lo que hay que hacer por él.
+     */
+    public static final class Paso {
+        private final EstadoSimulacion estado;
+        private final List<Comando> comandos;
+
+        private Paso(EstadoSimulacion estado, List<Comando> comandos) {
+            this.estado = estado;
+            this.comandos = comandos;
+        }
+
+        public EstadoSimulacion getEstado() { return estado; }
+        public List<Comando> getComandos() { return comandos; }
+    }
+
+    private final CatalogoEscenario catalogo;
+
+    public MotorSimulacion(CatalogoEscenario catalogo) {
+        this.catalogo = catalogo;
+    }
+
+    // ============================================================
+    // AVANZAR (siguiente par del día o primer par del día siguiente)
+    // ============================================================
+    public Paso avanzar(EstadoSimulacion estado, int horaReal) {
+        EstadoSimulacion nuevo = siguiente(estado);
+        return new Paso(nuevo, efectos(nuevo, horaReal));
+    }
+
+    /**
+     * Solo el cambio de estado, sin efectos (para aplicarlo de forma atómica en AlmacenEstado).
+     */
+    public EstadoSimulacion siguiente(EstadoSimulacion estado) {
+        int dia = estado.getDiaActual();
+        int indice = estado.getIndiceMensajeDia();
+
+        if (indice < catalogo.contarAlertasDelDia(dia) - 1) {
+            // Quedan más mensajes del mismo día
+            return estado.conPosicion(dia, indice + 1);
+        }
+        // Ya se mostraron todos los mensajes de ese día → pasar al siguiente
+        return estado.conPosicion(dia + 1, 0);
+    }
+
+    // ============================================================
+    // AVANZAR VARIOS PASOS / SALTAR A UN DÍA (modo desarrollador)
+    // Se calcula la posición final directamente, sin pasar por cada mensaje
+    // ============================================================
+    public Paso avanzarVarios(EstadoSimulacion estado, int pasos, int horaReal, Intermedias politica) {
+        return saltarA(estado, posicionTrasPasos(estado, pasos), horaReal, politica);
+    }
+
+    public Paso saltarADia(EstadoSimulacion estado, int dia, int horaReal, Intermedias politica) {
+        return saltarA(estado, estado.conPosicion(Math.max(1, dia), 0), horaReal, politica);
+    }
+
+    /**
+     * Lo mismo que llamar `pasos` veces a siguiente(), pero recorriendo días en vez de mensajes.
+     */
+    public EstadoSimulacion posicionTrasPasos(EstadoSimulacion estado, int pasos) {
+        int dia = estado.getDiaActual();
+        int indice = estado.getIndiceMensajeDia();
+        int ultimoDia = catalogo.getUltimoDia();
+
+        while (pasos > 0) {
+            if (dia > ultimoDia) {
+                // Pasado el final cada día vacío cuesta un paso
+                dia += pasos;
+                indice = 0;
+                break;
+            }
+            // Pasos que quedan dentro de este día (un día sin alertas también cuenta como uno)
+            int quedanEnElDia = Math.max(0, Math.max(1, catalogo.contarAlertasDelDia(dia)) - 1 - indice);
+            if (pasos <= quedanEnElDia) {
+                indice += pasos;
+                break;
+            }
+            pasos -= quedanEnElDia + 1;
+            dia++;
+            indice = 0;
+        }
+        return estado.conPosicion(dia, indice);
+    }
+
+    private Paso saltarA(EstadoSimulacion estado, EstadoSimulacion destino, int horaReal, Intermedias politica) {
+        List<Comando> comandos = new ArrayList<>(efectos(destino, horaReal));
+        if (politica == Intermedias.AGRUPAR) {
+            List<Mensaje> saltadas = alertasEntre(estado, destino);
+            if (!saltadas.isEmpty()) comandos.add(new Comando(Comando.Tipo.RESUMEN, null, 0, null, saltadas));
+        }
+        return new Paso(destino, comandos);
+    }
+
+    // Alertas estrictamente entre las dos posiciones (ni la de partida, que ya se vio, ni la final)
+    private List<Mensaje> alertasEntre(EstadoSimulacion desde, EstadoSimulacion hasta) {
+        List<Mensaje> saltadas = new ArrayList<>();
+        int ultimo = Math.min(hasta.getDiaActual(), catalogo.getUltimoDia());
+        for (int dia = desde.getDiaActual(); dia <= ultimo; dia++) {
+            List<Mensaje> alertas = catalogo.alertasDelDia(dia);
+            int inicio = dia == desde.getDiaActual() ? desde.getIndiceMensajeDia() + 1 : 0;
+            int fin = dia == hasta.getDiaActual() ? Math.min(hasta.getIndiceMensajeDia(), alertas.size()) : alertas.size();
+            if (inicio < fin) saltadas.addAll(alertas.subList(inicio, fin));
+        }
+        return saltadas;
+    }
+
+    // ============================================================
+    // EFECTOS DE LLEGAR A UNA POSICIÓN
+    // - la alerta que toca: sonido + notificación
+    // - final del día 14 a las 23:00 (hora real): linterna SOS
+    // ============================================================
+    public List<Comando> efectos(EstadoSimulacion estado, int horaReal) {
+        int dia = estado.getDiaActual();
+        int indice = estado.getIndiceMensajeDia();
+        List<Mensaje> alertas = catalogo.alertasDelDia(dia);
+
+        boolean hayAlerta = indice < alertas.size();
+        boolean sos = dia == DIA_SOS && indice == alertas.size() - 1 && horaReal == HORA_SOS;
+        if (!hayAlerta && !sos) return Collections.emptyList();
+
+        List<Comando> comandos = new ArrayList<>(3);
+        if (hayAlerta) {
+            Mensaje alerta = alertas.get(indice);
+            comandos.add(new Comando(Comando.Tipo.SONIDO, alerta, indice, null, null));
+            comandos.add(new Comando(Comando.Tipo.NOTIFICAR, alerta, indice, null, null));
+        }
+        if (sos) {
+            comandos.add(new Comando(Comando.Tipo.LINTERNA, null, indice, TEXTO_SOS, null));
+        }
+        return comandos;
+    }
+
+    // ============================================================
+    // REINICIAR (día 1, fecha de inicio nueva; conserva usuario)
+    // ============================================================
+    // No depende del escenario ni tiene efectos
+    public static EstadoSimulacion reiniciar(EstadoSimulacion estado, boolean modoDesarrollador, long nuevaFechaInicio) {
+        return estado.conModoDesarrollador(modoDesarrollador).reiniciado(nuevaFechaInicio);
+    }
+}
+
+/**
+ * ============================================================
+ * ⚙️ Clase: MotorSimulacion.java
+ * ============================================================
+ *
+ * Las **reglas de la simulación**, separadas de las pantallas.
+ *
+ * Antes vivían en métodos estáticos de `Controlador` que recibían una
+ * `Activity` y tocaban vistas, `Toast` y preferencias: no se podían
+ * ejecutar sin un móvil o un emulador.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - Recibe un escenario (`CatalogoEscenario`) y un `EstadoSimulacion`.
+ *  - `avanzar()` devuelve un `Paso`: el estado siguiente y la lista de
+ *    `Comando` que la app tiene que ejecutar (SONIDO, NOTIFICAR, LINTERNA).
+ *  - `siguiente()` es solo el cambio de estado; `efectos()` solo los comandos.
+ *  - `avanzarVarios()` / `saltarADia()` calculan la posición final de golpe
+ *    (recorriendo días, no mensajes). Las alertas del camino se suprimen
+ *    o se agrupan en un único comando RESUMEN (`Intermedias`).
+ *  - `reiniciar()` vuelve al día 1 (no tiene efectos ni depende del escenario).
+ *  - La hora real (para el SOS de las 23:00) entra como parámetro:
+ *    el motor no lee el reloj.
+ *
+ * `Controlador` aplica el estado en `AlmacenEstado` y ejecuta los comandos
+ * (`MotorSonido`, `DespachadorNotificaciones`, `SenalizadorLinterna`).
+ * En los tests de JVM se puede recorrer un escenario entero sin Android.
+ *
+ * ============================================================
+ */
@@ -0,0 +1,277 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.media.SoundPool;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import com.example.apocalipsisgranada.R;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Todos los métodos se llaman desde el hilo principal.
+ */
+public class MotorSonido {
+
+    private static final int MAX_VOCES = 3;   // sonidos cortos sonando a la vez como máximo
+
+    // Clips cortos: se cargan en memoria al arrancar y suenan al instante
+    private static final int[] CORTOS = {
+            R.raw.alert, R.raw.alarm_short, R.raw.gremlin_risa, R.raw.alien_risa
+    };
+    // El resto (sonido_raro, siren_warning) son largos: se reproducen en streaming en su propio hilo
+
+    private static Context aplicacion;
+    private static int pantallasVisibles = 0;
+
+    // ====== SONIDOS CORTOS (SoundPool) ======
+    private static SoundPool pool;
+    private static final Map<Integer, Integer> idsEnPool = new HashMap<>();   // recurso → id en el pool
+    private static final Set<Integer> cargados = new HashSet<>();            // ids del pool ya decodificados
+    private static final Set<Integer> pendientes = new HashSet<>();          // pedidos antes de terminar de cargar
+
+    // ====== SONIDOS LARGOS (MediaPlayer en el hilo de audio) ======
+    private static HandlerThread hiloAudio;
+    private static Handler manejadorAudio;
+    private static MediaPlayer reproductorLargo;   // solo se toca desde hiloAudio
+    private static MediaPlayer preparado;          // siguiente clip largo ya preparado (hiloAudio)
+    private static int recursoPreparado = 0;
+
+    // ============================================================
+    // INICIAR (precarga los clips cortos; se libera todo al pasar a segundo plano)
+    // ============================================================
+    public static void iniciar(Context context) {
+        if (aplicacion == null) {
+            aplicacion = context.getApplicationContext();
+            if (aplicacion instanceof Application) {
+                ((Application) aplicacion).registerActivityLifecycleCallbacks(alCambiarPantalla);
+            }
+        }
+        precargar();
+    }
+
+    // ============================================================
+    // REPRODUCIR
+    // ============================================================
+    public static void reproducir(Context context, int recurso) {
+        if (recurso == 0) return; // sin sonido
+        iniciar(context);
+
+        Integer id = idsEnPool.get(recurso);
+        if (id == null) {
+            reproducirLargo(recurso);
+        } else if (cargados.contains(id)) {
+            long inicio = Metricas.empezar(Metricas.AUDIO_CORTO);
+            pool.play(id, 1f, 1f, 1, 0, 1f);
+            Metricas.terminar(Metricas.AUDIO_CORTO, inicio);
+        } else {
+            pendientes.add(id); // sonará en cuanto termine de cargarse
+            Metricas.contar(Metricas.AUDIO_EN_ESPERA);
+        }
+    }
+
+    /**
+     * Deja listo el sonido que va a hacer falta después (lo llama Precargador en tiempo libre):
+     * los cortos ya están en el pool; un largo se prepara en el hilo de audio.
+     */
+    public static void preparar(Context context, int recurso) {
+        if (recurso == 0) return;
+        iniciar(context);
+        if (idsEnPool.containsKey(recurso)) return;
+
+        Context contexto = aplicacion;
+        manejadorAudio.post(() -> {
+            if (recursoPreparado == recurso) return;
+            liberarPreparado();
+            preparado = MediaPlayer.create(contexto, recurso); // create() ya deja el reproductor preparado
+            recursoPreparado = preparado != null ? recurso : 0;
+        });
+    }
+
+    private static void precargar() {
+        if (pool != null) return;
+
+        AudioAttributes atributos = new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_MEDIA)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build();
+        pool = new SoundPool.Builder()
+                .setMaxStreams(MAX_VOCES)
+                .setAudioAttributes(atributos)
+                .build();
+
+        pool.setOnLoadCompleteListener((cargador, id, estado) -> {
+            if (cargador != pool || estado != 0) return; // pool ya liberado o error al decodificar
+            cargados.add(id);
+            if (pendientes.remove(id)) cargador.play(id, 1f, 1f, 1, 0, 1f);
+        });
+
+        for (int recurso : CORTOS) {
+            idsEnPool.put(recurso, pool.load(aplicacion, recurso, 1));
+        }
+
+        hiloAudio = new HandlerThread("audio-largo");
+        hiloAudio.start();
+        manejadorAudio = new Handler(hiloAudio.getLooper());
+    }
+
+    private static void reproducirLargo(int recurso) {
+        Context contexto = aplicacion;
+        long pedido = System.nanoTime();   // la latencia incluye la espera en el hilo de audio
+        manejadorAudio.post(() -> {
+            // Un solo sonido largo a la vez: el nuevo sustituye al anterior
+            detenerLargo();
+
+            // Si el Precargador ya lo dejó preparado, se usa ese (sin decodificar nada ahora)
+            MediaPlayer reproductor;
+            if (recursoPreparado == recurso) {
+                reproductor = preparado;
+                preparado = null;
+                recursoPreparado = 0;
+            } else {
+                reproductor = MediaPlayer.create(contexto, recurso);
+            }
+            if (reproductor == null) return;
+            reproductor.setOnCompletionListener(terminado -> {
+                if (reproductorLargo == terminado) reproductorLargo = null;
+                terminado.release();
+            });
+            reproductorLargo = reproductor;
+            reproductor.start();
+            Metricas.anotar(Metricas.AUDIO_LARGO, System.nanoTime() - pedido);
+        });
+    }
+
+    /**
+     * Sonido propio de un paquete de escenario: siempre en streaming en el hilo de audio
+     * (no se sabe cuánto dura, así que no se mete en el pool).
+     */
+    public static void reproducirDePaquete(Context context, PaqueteEscenario paquete, String nombre) {
+        iniciar(context);
+
+        Context contexto = aplicacion;
+        long pedido = System.nanoTime();
+        manejadorAudio.post(() -> {
+            detenerLargo();
+
+            MediaPlayer reproductor = new MediaPlayer();
+            try {
+                paquete.cargarSonido(contexto, nombre, reproductor);
+                reproductor.prepare();
+            } catch (Exception e) {
+                e.printStackTrace();
+                reproductor.release();
+                return;
+            }
+            reproductor.setOnCompletionListener(terminado -> {
+                if (reproductorLargo == terminado) reproductorLargo = null;
+                terminado.release();
+            });
+            reproductorLargo = reproductor;
+            reproductor.start();
+            Metricas.anotar(Metricas.AUDIO_LARGO, System.nanoTime() - pedido);
+        });
+    }
+
+    // Solo desde hiloAudio
+    private static void detenerLargo() {
+        if (reproductorLargo != null) {
+            reproductorLargo.release();
+            reproductorLargo = null;
+        }
+    }
+
+    // Solo desde hiloAudio
+    private static void liberarPreparado() {
+        if (preparado != null) {
+            preparado.release();
+            preparado = null;
+        }
+        recursoPreparado = 0;
+    }
+
+    // ============================================================
+    // LIBERAR (al pasar la app a segundo plano)
+    // ============================================================
+    private static void liberar() {
+        if (pool == null) return;
+
+        pool.release();
+        pool = null;
+        idsEnPool.clear();
+        cargados.clear();
+        pendientes.clear();
+
+        // Se detiene lo que esté sonando y el hilo termina cuando acaba esa tarea
+        manejadorAudio.post(() -> {
+            detenerLargo();
+            liberarPreparado();
+        });
+        hiloAudio.quitSafely();
+        manejadorAudio = null;
+        hiloAudio = null;
+    }
+
+    private static final Application.ActivityLifecycleCallbacks alCambiarPantalla = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityStarted(Activity activity) {
+            if (pantallasVisibles++ == 0) precargar();
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+            if (pantallasVisibles > 0 && --pantallasVisibles == 0) liberar();
+        }
+
+        @Override public void onActivityCreated(Activity activity, Bundle estadoGuardado) {}
+        @Override public void onActivityResumed(Activity activity) {}
+        @Override public void onActivityPaused(Activity activity) {}
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle estadoSalida) {}
+        @Override public void onActivityDestroyed(Activity activity) {}
+    };
+}
+
+/**
+ * ============================================================
+ * 🔊 Clase: MotorSonido.java
+ * ============================================================
+ *
+ * Reproduce los sonidos de las alertas **sin retraso y sin fugas**.
+ *
+ * Antes cada alerta hacía `MediaPlayer.create(...).start()` en el hilo
+ * principal: decodificaba el mp3 desde cero y el reproductor no se liberaba nunca.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  🔹 Clips cortos (alert, alarm_short, gremlin_risa, alien_risa):
+ *     - Se cargan en un `SoundPool` al arrancar (`iniciar()`).
+ *     - Suenan al momento; como mucho `MAX_VOCES` a la vez.
+ *     - Si se piden antes de estar cargados, suenan al terminar la carga.
+ *
+ *  🔹 Clips largos (sonido_raro ≈ 1 MB, siren_warning ≈ 540 KB):
+ *     - Se reproducen en streaming con `MediaPlayer` en el hilo "audio-largo".
+ *     - Solo uno a la vez; se libera al terminar o al empezar otro.
+ *     - `preparar()` deja listo el siguiente en tiempo libre (lo usa `Precargador`).
+ *     - Los sonidos propios de un paquete de escenario (`reproducirDePaquete()`)
+ *       van por el mismo camino.
+ *
+ *  🔹 Métricas (`Metricas`): `audio.corto` mide `play()`; `audio.largo`, desde
+ *     que se pide hasta que empieza a sonar (incluida la espera en el hilo de audio).
+ *
+ *  🔹 Segundo plano:
+ *     - Cuenta las pantallas visibles; al llegar a 0 libera el pool,
+ *       el reproductor y el hilo. Al volver, se precarga de nuevo.
+ *
+ * ============================================================
+ */
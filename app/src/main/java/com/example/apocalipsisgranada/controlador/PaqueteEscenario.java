@@ -0,0 +1,166 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.MediaPlayer;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public final class PaqueteEscenario {
+
+    public static final String PREDETERMINADO = EstadoSimulacion.PAQUETE_INICIAL;   // la historia de siempre (raíz de /assets)
+
+    // ====== ESTRUCTURA DE UN PAQUETE ======
+    // escenarios/<id>/paquete.json   → {"id", "nombre", "descripcion", "version"}
+    // escenarios/<id>/alertas.json
+    // escenarios/<id>/guias.json
+    // escenarios/<id>/sonidos/<nombre>.mp3 (opcional; el "sonido" del JSON sin extensión)
+    static final String CARPETA = "escenarios";          // en /assets y en getFilesDir()
+    static final String METADATOS = "paquete.json";
+    static final String ALERTAS = "alertas.json";
+    static final String GUIAS = "guias.json";
+    static final String SONIDOS = "sonidos";
+    private static final String EXTENSION_SONIDO = ".mp3";
+
+    // ====== CAMPOS ======
+    private final String id;
+    private final String nombre;
+    private final String descripcion;
+    private final int version;
+    private final String rutaAssets;     // carpeta dentro de /assets ("" = raíz); null si está en almacenamiento privado
+    private final File carpeta;          // carpeta en almacenamiento privado; null si está en /assets
+    private final Set<String> sonidos;   // nombres de los sonidos propios (sin extensión)
+
+    private PaqueteEscenario(String id, String nombre, String descripcion, int version,
+                             String rutaAssets, File carpeta, Set<String> sonidos) {
+        this.id = id;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.version = version;
+        this.rutaAssets = rutaAssets;
+        this.carpeta = carpeta;
+        this.sonidos = sonidos;
+    }
+
+    // ====== GETTERS ======
+    public String getId() { return id; }
+    public String getNombre() { return nombre; }
+    public String getDescripcion() { return descripcion; }
+    public int getVersion() { return version; }
+    public boolean esPredeterminado() { return PREDETERMINADO.equals(id); }
+
+    // ============================================================
+    // LEER METADATOS (solo paquete.json y la lista de sonidos; ningún mensaje)
+    // ============================================================
+    static PaqueteEscenario predeterminado() {
+        return new PaqueteEscenario(PREDETERMINADO, "Apocalipsis Granada",
+                "La invasión gremlin original", 1, "", null, Collections.emptySet());
+    }
+
+    static PaqueteEscenario leerDeAssets(Context context, String ruta) throws Exception {
+        JSONObject metadatos = new JSONObject(leerTexto(context.getAssets().open(ruta + "/" + METADATOS)));
+
+        Set<String> sonidos = new HashSet<>();
+        String[] archivos = context.getAssets().list(ruta + "/" + SONIDOS);
+        if (archivos != null) for (String archivo : archivos) anadirSonido(sonidos, archivo);
+
+        return desdeMetadatos(metadatos, ruta, null, sonidos);
+    }
+
+    static PaqueteEscenario leerDeCarpeta(File carpeta) throws Exception {
+        JSONObject metadatos = new JSONObject(leerTexto(new FileInputStream(new File(carpeta, METADATOS))));
+
+        Set<String> sonidos = new HashSet<>();
+        String[] archivos = new File(carpeta, SONIDOS).list();
+        if (archivos != null) for (String archivo : archivos) anadirSonido(sonidos, archivo);
+
+        return desdeMetadatos(metadatos, null, carpeta, sonidos);
+    }
+
+    private static PaqueteEscenario desdeMetadatos(JSONObject metadatos, String rutaAssets, File carpeta,
+                                                   Set<String> sonidos) {
+        String id = metadatos.optString("id", carpeta != null ? carpeta.getName() : rutaAssets);
+        return new PaqueteEscenario(id,
+                metadatos.optString("nombre", id),
+                metadatos.optString("descripcion", ""),
+                metadatos.optInt("version", 1),
+                rutaAssets, carpeta, sonidos);
+    }
+
+    private static void anadirSonido(Set<String> sonidos, String archivo) {
+        if (archivo.endsWith(EXTENSION_SONIDO)) {
+            sonidos.add(archivo.substring(0, archivo.length() - EXTENSION_SONIDO.length()));
+        }
+    }
+
+    // ============================================================
+    // ABRIR ARCHIVOS DEL PAQUETE
+    // ============================================================
+    public InputStream abrir(Context context, String archivo) throws IOException {
+        if (carpeta != null) return new FileInputStream(new File(carpeta, archivo));
+        return context.getAssets().open(rutaAssets.isEmpty() ? archivo : rutaAssets + "/" + archivo);
+    }
+
+    public boolean tieneSonido(String nombreSonido) {
+        return sonidos.contains(nombreSonido);
+    }
+
+    /**
+     * Prepara en el reproductor un sonido propio del paquete (sin decodificarlo entero en memoria).
+     */
+    void cargarSonido(Context context, String nombreSonido, MediaPlayer reproductor) throws IOException {
+        String archivo = SONIDOS + "/" + nombreSonido + EXTENSION_SONIDO;
+        if (carpeta != null) {
+            reproductor.setDataSource(new File(carpeta, archivo).getPath());
+        } else {
+            // Los mp3 no se comprimen en el APK: se leen directamente del archivo
+            try (AssetFileDescriptor descriptor = context.getAssets().openFd(rutaAssets + "/" + archivo)) {
+                reproductor.setDataSource(descriptor.getFileDescriptor(), descriptor.getStartOffset(), descriptor.getLength());
+            }
+        }
+    }
+
+    private static String leerTexto(InputStream entrada) throws IOException {
+        try (InputStream is = entrada) {
+            ByteArrayOutputStream copia = new ByteArrayOutputStream();
+            byte[] bloque = new byte[4 * 1024];
+            int leidos;
+            while ((leidos = is.read(bloque)) != -1) {
+                copia.write(bloque, 0, leidos);
+            }
+            return new String(copia.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
+
+/**
+ * ============================================================
+ * 🎒 Clase: PaqueteEscenario.java
+ * ============================================================
+ *
+ * Describe un **paquete de escenario**: una historia completa con sus
+ * alertas, guías, sonidos propios y metadatos (nombre, descripción, versión).
+ *
+ * Un paquete es una carpeta `escenarios/<id>/` que puede estar:
+ *  - dentro de /assets (viene con la app), o
+ *  - en el almacenamiento privado de la app (instalado desde un .zip
+ *    con `GestorPaquetes.instalar()`).
+ *
+ * El paquete `granada` es la historia original, que vive en la raíz de /assets
+ * (con su `escenario.bin` compilado).
+ *
+ * Leer un paquete solo lee `paquete.json` y la lista de sonidos: los mensajes
+ * y el índice por día no se cargan hasta que se juega (ver `GestorPaquetes`).
+ *
+ * ============================================================
+ */
@@ -0,0 +1,91 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.app.Activity;
+import android.os.Looper;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Precargador {
+
+    /**
+     * Pantallas que pueden medir de antemano el texto de los mensajes que van a mostrar.
+     */
+    public interface ConTextos {
+        void precalcularTextos(List<Mensaje> siguientes);
+    }
+
+    // ============================================================
+    // PROGRAMAR (cuando el hilo principal se quede libre tras un avance)
+    // ============================================================
+    public static void programar(Activity activity) {
+        Looper.myQueue().addIdleHandler(() -> {
+            if (!activity.isFinishing() && !activity.isDestroyed()) precargarSiguiente(activity);
+            return false; // una sola vez
+        });
+    }
+
+    // ============================================================
+    // PRECARGAR EL SIGUIENTE PASO
+    // Es siempre (diaActual, indice + 1) o el primer mensaje del día siguiente
+    // ============================================================
+    private static void precargarSiguiente(Activity activity) {
+        CatalogoEscenario catalogo = GestorEscenario.catalogoCargado(activity);
+        if (catalogo == null) return;   // aún se está leyendo: no hay nada que adelantar
+        EstadoSimulacion estado = AlmacenEstado.obtener(activity).actual();
+
+        int dia = estado.getDiaActual();
+        int indice = estado.getIndiceMensajeDia();
+        if (indice < catalogo.contarAlertasDelDia(dia) - 1) {
+            indice++;
+        } else {
+            dia++;
+            indice = 0;
+        }
+
+        // 1️⃣ Fecha del día siguiente ya formateada (queda en EtiquetasFecha)
+        Controlador.obtenerFechaSimulada(activity, dia);
+
+        // 2️⃣ Sonido de la siguiente alerta listo para sonar
+        List<Mensaje> siguientes = new ArrayList<>(2);
+        List<Mensaje> alertas = catalogo.alertasDelDia(dia);
+        if (indice < alertas.size()) {
+            Mensaje alerta = alertas.get(indice);
+            MotorSonido.preparar(activity, alerta.obtenerRecursoSonido());
+            siguientes.add(alerta);
+        }
+
+        // 3️⃣ Texto del siguiente par (alerta + guía) ya medido
+        List<Mensaje> guias = catalogo.guiasDelDia(dia);
+        if (indice < guias.size()) siguientes.add(guias.get(indice));
+
+        if (activity instanceof ConTextos && !siguientes.isEmpty()) {
+            ((ConTextos) activity).precalcularTextos(siguientes);
+        }
+    }
+}
+
+/**
+ * ============================================================
+ * 🔮 Clase: Precargador.java
+ * ============================================================
+ *
+ * Adelanta el trabajo del **siguiente avance** mientras el usuario
+ * lee lo que acaba de aparecer.
+ *
+ * El siguiente mensaje se conoce de antemano: es el índice siguiente del
+ * día actual o el primero del día siguiente. Cuando el hilo principal
+ * queda libre (`IdleHandler`), se deja listo:
+ *
+ *  1️⃣ La fecha simulada de ese día (`EtiquetasFecha`).
+ *  2️⃣ El sonido de la alerta (`MotorSonido.preparar()`).
+ *  3️⃣ El texto de la alerta y la guía, medido con `PrecomputedTextCompat`
+ *     (las pantallas que implementan `ConTextos`).
+ *
+ * Así, el siguiente toque en “Avanzar” pinta y suena sin trabajo en frío.
+ *
+ * ============================================================
+ */
@@ -37,14 +37,13 @@ public class Preferencias{
 
     // GUARDAR NOMBRE DE USUARIO
     public static void guardarNombreUsuario(Context context, String nombre) {
-        synchronized (Preferencias.class) {
-            getPrefs(context).edit().putString("nombreUsuario", nombre).commit(); // commit para asegurar escritura inmediata
-        }
+        // Cambio atómico en memoria; AlmacenEstado lo escribe en segundo plano
+        AlmacenEstado.obtener(context).actualizar(estado -> estado.conNombreUsuario(nombre));
     }
 
     // OBTENER NOMBRE DE USUARIO
     public static String obtenerNombreUsuario(Context context) {
-        return getPrefs(context).getString("nombreUsuario", "");
+        return AlmacenEstado.obtener(context).actual().getNombreUsuario();
     }
 
     // COMPROBAR SI HAY USUARIO
@@ -55,42 +54,31 @@ public class Preferencias{
 
     // CERRAR SESIÓN (borra usuario + notificaciones)
     public static void cerrarSesion(Context context) {
-        synchronized (Preferencias.class) {
-            SharedPreferences prefs = getPrefs(context);
-            SharedPreferences.Editor editor = prefs.edit(); //abrimos el editor
-            editor.remove("nombreUsuario");//Borra el usuario guardado.
-            for (String clave : prefs.getAll().keySet()) {
-                if (clave.startsWith("notificado_dia_")) { //Limpia las notificaciones que empiecen por "notificado_dia_".
-                    editor.remove(clave);
-                }
+        // Solo se olvida al usuario: el progreso, el modo desarrollador y la historia se conservan
+        AlmacenEstado.obtener(context).actualizar(estado -> estado.conNombreUsuario(""));
+
+        SharedPreferences prefs = getPrefs(context);
+        SharedPreferences.Editor editor = prefs.edit(); //abrimos el editor
+        for (String clave : prefs.getAll().keySet()) {
+            if (clave.startsWith("notificado_dia_")) { //Limpia las notificaciones que empiecen por "notificado_dia_".
+                editor.remove(clave);
             }
-            editor.commit();//guardamos los cambios
         }
+        editor.apply();//guardamos los cambios (en segundo plano)
     }
 
     // REINICIAR SIMULACIÓN (mantiene usuario y modo desarrollador)
     public static void reiniciarSimulacion(Context context, boolean modoDev) {
-        synchronized (Preferencias.class) {
-
-            /**
-             * Sirve para que dos procesos no escriban a la vez en las preferencias.
-             * Ejemplo:
-             * Si guardas el nombre mientras otra parte borra el usuario → puede corromper los datos.
-             * Con synchronized, solo una acción puede ejecutarse al mismo tiempo. 🔒
-             */
+        /**
+         * Antes se hacía con synchronized + commit() para que dos escrituras no se pisaran.
+         * Ahora el cambio es una sola operación atómica sobre el estado en memoria
+         * (AlmacenEstado), y el disco se actualiza después en su propio hilo. 🔒
+         */
+        long ahora = System.currentTimeMillis();
+        AlmacenEstado.obtener(context).actualizar(estado -> MotorSimulacion.reiniciar(estado, modoDev, ahora));
 
-
-            SharedPreferences prefs = getPrefs(context);
-            SharedPreferences.Editor editor = prefs.edit();
-
-            String nombre = prefs.getString("nombreUsuario", "");
-            editor.clear();
-            editor.putString("nombreUsuario", nombre);
-            editor.putBoolean("modoDesarrollador", modoDev);
-            editor.putInt("diaActual", 1);
-            editor.putLong("fechaInicio", System.currentTimeMillis());
-            editor.commit();
-        }
+        // Nueva fecha de inicio → las fechas simuladas ya formateadas no sirven
+        EtiquetasFecha.invalidar();
     }
 }
 
@@ -124,9 +112,9 @@ public class Preferencias{
  *     - `indiceMensajeDia`: el primer mensaje del día (valor 0).
  *     - `modoDesarrollador`: desactivado por defecto (false).
  *
- *   ➤ Por qué se usa `apply()`:
- *     El método `apply()` guarda los datos de forma asíncrona
- *     (sin bloquear la interfaz) y es más eficiente que `commit()`.
+ *   ➤ Por qué no bloquea:
+ *     El cambio se hace en memoria (`AlmacenEstado`) y se escribe
+ *     en disco después, en segundo plano, sin bloquear la interfaz.
  *
  *   ➤ Interacción:
  *     - Se llama una vez en `VistaLogin` al pulsar “Iniciar sesión”.
@@ -137,16 +125,16 @@ public class Preferencias{
  * 2️⃣ **cerrarSesion(Context context)**
  * ------------------------------------------------------------
  *   ➤ Objetivo:
- *     Elimina todas las preferencias guardadas del usuario actual.
+ *     Olvida al usuario actual.
  *     Se usa cuando se pulsa el texto **"Cerrar sesión"** en la cabecera.
  *
  *   ➤ Qué hace:
- *     - Abre el archivo de preferencias “configuracion”.
- *     - Borra todas las claves guardadas (`clear()`).
- *     - Guarda el cambio inmediatamente con `apply()`.
+ *     - Deja `nombreUsuario` vacío en `AlmacenEstado` (se guarda en segundo plano).
+ *     - Borra las claves `notificado_dia_*` de “configuracion” con `apply()`.
  *
  *   ➤ Resultado:
- *     - El usuario pierde el progreso y el modo desarrollador.
+ *     - El día, la fecha de inicio, el modo desarrollador y la historia
+ *       elegida se conservan.
  *     - La aplicación queda lista para volver al login.
  *
  *   ➤ Interacción:
@@ -204,6 +192,8 @@ public class Preferencias{
  * ------------------------------------------------------------
  *
  * `Preferencias.java` centraliza toda la **gestión de persistencia**.
+ * Desde que existe `AlmacenEstado`, sus métodos cambian el estado en memoria
+ * y la escritura en disco se agrupa y se hace en segundo plano.
  *
  * ✔️ Evita duplicar código en otras clases.
  * ✔️ Mantiene la sesión activa aunque se cierre la app.
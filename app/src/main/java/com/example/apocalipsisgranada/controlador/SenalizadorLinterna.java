@@ -0,0 +1,219 @@
+package com.example.apocalipsisgranada.controlador;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraManager;
+import android.os.Bundle;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Se llama desde el hilo principal; la linterna solo se toca desde el hilo "linterna".
+ */
+public class SenalizadorLinterna {
+
+    public static final long UNIDAD_MS = 200;   // duración de un punto; el resto se mide en puntos
+
+    private static final Map<Character, String> MORSE = new HashMap<>();
+    static {
+        String[] letras = {
+                ".-", "-...", "-.-.", "-..", ".", "..-.", "--.", "....", "..", ".---", "-.-", ".-..", "--",
+                "-.", "---", ".--.", "--.-", ".-.", "...", "-", "..-", "...-", ".--", "-..-", "-.--", "--.."
+        };
+        for (int i = 0; i < letras.length; i++) MORSE.put((char) ('A' + i), letras[i]);
+
+        String[] cifras = {
+                "-----", ".----", "..---", "...--", "....-", ".....", "-....", "--...", "---..", "----."
+        };
+        for (int i = 0; i < cifras.length; i++) MORSE.put((char) ('0' + i), cifras[i]);
+    }
+
+    // Un solo hilo: nunca hay dos patrones peleando por la linterna
+    private static ScheduledExecutorService hilo;
+    private static final AtomicInteger generacion = new AtomicInteger();   // cambia al empezar o cancelar un patrón
+
+    private static CameraManager camaras;
+    private static String idCamara;          // primera cámara con flash (cacheada)
+    private static boolean camaraBuscada = false;
+    private static int pantallasVisibles = 0;
+
+    // ============================================================
+    // CODIFICAR TEXTO EN MORSE
+    // Devuelve la secuencia de tiempos: [encendido, apagado, encendido, apagado, ...]
+    // ============================================================
+    public static long[] codificarMorse(String texto) {
+        // Se quitan tildes (á → a) y lo que no tiene código se ignora
+        String limpio = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT);
+
+        long[] tiempos = new long[limpio.length() * 12];
+        int n = 0;
+        boolean espacioPendiente = false;
+
+        for (int i = 0; i < limpio.length(); i++) {
+            char c = limpio.charAt(i);
+            String codigo = MORSE.get(c);
+            if (codigo == null) {
+                if (Character.isWhitespace(c)) espacioPendiente = true;
+                continue;
+            }
+
+            // Separación con el símbolo anterior: 3 puntos entre letras, 7 entre palabras
+            if (n > 0) tiempos[n - 1] = (espacioPendiente ? 7 : 3) * UNIDAD_MS;
+            espacioPendiente = false;
+
+            for (int j = 0; j < codigo.length(); j++) {
+                tiempos[n++] = (codigo.charAt(j) == '-' ? 3 : 1) * UNIDAD_MS;
+                tiempos[n++] = UNIDAD_MS;   // pausa entre punto y raya
+            }
+        }
+
+        long[] resultado = new long[n];
+        System.arraycopy(tiempos, 0, resultado, 0, n);
+        return resultado;
+    }
+
+    // ============================================================
+    // EMITIR (cancela lo que estuviera sonando y empieza el nuevo patrón)
+    // ============================================================
+    public static boolean emitirTexto(Context context, String texto) {
+        return emitir(context, codificarMorse(texto));
+    }
+
+    /**
+     * @param tiempos duraciones en ms alternando encendido / apagado, empezando por encendido.
+     * @return false si el dispositivo no tiene ninguna cámara con flash.
+     */
+    public static boolean emitir(Context context, long[] tiempos) {
+        iniciar(context);
+        String id = buscarCamara();
+        if (id == null) return false;
+
+        int miGeneracion = generacion.incrementAndGet();
+        hilo.execute(() -> paso(id, tiempos, 0, miGeneracion));
+        return true;
+    }
+
+    public static void detener() {
+        if (hilo == null) return;
+        generacion.incrementAndGet();   // los pasos ya programados ven el cambio y no hacen nada
+        String id = idCamara;
+        if (id != null) hilo.execute(() -> encender(id, false));
+    }
+
+    // Solo desde el hilo "linterna": cada paso programa el siguiente
+    private static void paso(String id, long[] tiempos, int i, int miGeneracion) {
+        if (miGeneracion != generacion.get()) return;   // cancelado o sustituido
+        if (i >= tiempos.length) {
+            encender(id, false);
+            return;
+        }
+        encender(id, i % 2 == 0);
+        hilo.schedule(() -> paso(id, tiempos, i + 1, miGeneracion), tiempos[i], TimeUnit.MILLISECONDS);
+    }
+
+    private static void encender(String id, boolean encendida) {
+        try {
+            camaras.setTorchMode(id, encendida);
+        } catch (Exception e) {
+            e.printStackTrace();   // cámara ocupada por otra app: se ignora ese destello
+        }
+    }
+
+    // ============================================================
+    // CÁMARA CON FLASH (se busca una sola vez)
+    // ============================================================
+    private static String buscarCamara() {
+        if (camaraBuscada) return idCamara;
+        try {
+            for (String id : camaras.getCameraIdList()) {
+                Boolean flash = camaras.getCameraCharacteristics(id).get(CameraCharacteristics.FLASH_INFO_AVAILABLE);
+                if (Boolean.TRUE.equals(flash)) {
+                    idCamara = id;
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        camaraBuscada = true;
+        return idCamara;
+    }
+
+    // ============================================================
+    // INICIAR (hilo y cámaras); al pasar a segundo plano se corta el patrón
+    // ============================================================
+    private static void iniciar(Context context) {
+        if (hilo != null) return;
+
+        Context aplicacion = context.getApplicationContext();
+        camaras = (CameraManager) aplicacion.getSystemService(Context.CAMERA_SERVICE);
+        hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread t = new Thread(tarea, "linterna");
+            t.setDaemon(true);
+            return t;
+        });
+
+        if (aplicacion instanceof Application) {
+            ((Application) aplicacion).registerActivityLifecycleCallbacks(alCambiarPantalla);
+        }
+        if (context instanceof Activity) pantallasVisibles = 1;   // la pantalla que lo pide ya está visible
+    }
+
+    private static final Application.ActivityLifecycleCallbacks alCambiarPantalla = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityStarted(Activity activity) {
+            pantallasVisibles++;
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+            if (pantallasVisibles > 0 && --pantallasVisibles == 0) detener();
+        }
+
+        @Override public void onActivityCreated(Activity activity, Bundle estadoGuardado) {}
+        @Override public void onActivityResumed(Activity activity) {}
+        @Override public void onActivityPaused(Activity activity) {}
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle estadoSalida) {}
+        @Override public void onActivityDestroyed(Activity activity) {}
+    };
+}
+
+/**
+ * ============================================================
+ * 🔦 Clase: SenalizadorLinterna.java
+ * ============================================================
+ *
+ * Hace parpadear la linterna en **código Morse**.
+ *
+ * Antes el SOS del día 14 lanzaba un `new Thread` con `Thread.sleep()`
+ * entre destellos, usaba siempre la cámara 0 (que puede no tener flash),
+ * no se podía parar y, si se activaba dos veces, dos hilos se peleaban
+ * por la linterna.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - `codificarMorse(texto)` convierte cualquier texto en una secuencia de
+ *    tiempos (encendido / apagado) calculada de antemano. Punto = 1 unidad,
+ *    raya = 3; 3 unidades entre letras y 7 entre palabras.
+ *  - `emitir()` la reproduce en un único hilo programado ("linterna"):
+ *    cada paso programa el siguiente, sin `sleep`.
+ *  - Empezar un patrón nuevo o llamar a `detener()` cancela el anterior
+ *    (contador de generación) y deja la linterna apagada.
+ *  - La cámara con flash (`FLASH_INFO_AVAILABLE`) se busca una vez y se guarda.
+ *  - Al pasar la app a segundo plano el patrón se corta.
+ *
+ * ============================================================
+ */
@@ -0,0 +1,326 @@
+package com.example.apocalipsisgranada.modelo;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class CatalogoEscenario {
+
+    /**
+     * De dónde salen los mensajes: un array en memoria (JSON) o el escenario compilado (binario).
+     * Las posiciones son globales: primero todas las alertas y después todas las guías.
+     */
+    public interface Fuente {
+        Mensaje leer(int posicion);
+    }
+
+    // ====== CAMPOS ======
+    private final Fuente fuente;            // Mensajes ordenados por día (alertas y luego guías)
+    private final int[] inicioAlertas;      // inicioAlertas[d] → posición de la primera alerta con día >= d
+    private final int[] inicioGuias;        // inicioGuias[d] → posición de la primera guía con día >= d
+    private final int totalAlertas;         // Las guías empiezan en esta posición global
+    private final int ultimoDia;            // Último día con algún mensaje
+
+    // Pares alerta + guía de todos los días seguidos (orden cronológico):
+    // día 1 → alerta 0, guía 0, alerta 1, guía 1... día 2 → ...
+    private final int[] secuenciaPares;     // secuenciaPares[k] → posición global del k-ésimo mensaje
+    private final int[] inicioPares;        // inicioPares[d] → primera posición de la secuencia del día d
+
+    // Índices de búsqueda (se construyen la primera vez que se piden)
+    private volatile IndiceBusqueda indiceAlertas;   // se construyen una vez, en segundo plano
+    private volatile IndiceBusqueda indiceGuias;
+
+    // ====== CONSTRUCTORES ======
+    /**
+     * Catálogo en memoria a partir de las listas leídas de los JSON.
+     */
+    public CatalogoEscenario(List<Mensaje> alertas, List<Mensaje> guias) {
+        Mensaje[] alertasOrdenadas = ordenarPorDia(alertas);
+        Mensaje[] guiasOrdenadas = ordenarPorDia(guias);
+
+        int maximo = 0;
+        for (int i = 0; i < alertasOrdenadas.length; i++) maximo = Math.max(maximo, alertasOrdenadas[i].getDia());
+        for (int i = 0; i < guiasOrdenadas.length; i++) maximo = Math.max(maximo, guiasOrdenadas[i].getDia());
+        this.ultimoDia = maximo;
+
+        this.inicioAlertas = construirIndice(alertasOrdenadas, ultimoDia);
+        this.inicioGuias = construirIndice(guiasOrdenadas, ultimoDia);
+        this.totalAlertas = alertasOrdenadas.length;
+
+        // Todos en un array: alertas 0..n-1 y guías a continuación (esa posición es su id estable)
+        Mensaje[] todos = new Mensaje[alertasOrdenadas.length + guiasOrdenadas.length];
+        System.arraycopy(alertasOrdenadas, 0, todos, 0, alertasOrdenadas.length);
+        System.arraycopy(guiasOrdenadas, 0, todos, alertasOrdenadas.length, guiasOrdenadas.length);
+        for (int i = 0; i < todos.length; i++) todos[i].setId(i);
+
+        this.fuente = posicion -> todos[posicion];
+        this.inicioPares = new int[ultimoDia + 2];
+        this.secuenciaPares = construirSecuenciaPares();
+    }
+
+    /**
+     * Catálogo sobre una fuente ya indexada (el escenario compilado en binario).
+     * Los índices tienen la misma forma que los que construye el otro constructor.
+     */
+    public CatalogoEscenario(int[] inicioAlertas, int[] inicioGuias, Fuente fuente) {
+        if (inicioAlertas.length < 2 || inicioAlertas.length != inicioGuias.length) {
+            throw new IllegalArgumentException("Índices de días no válidos");
+        }
+        this.fuente = fuente;
+        this.inicioAlertas = inicioAlertas;
+        this.inicioGuias = inicioGuias;
+        this.totalAlertas = inicioAlertas[inicioAlertas.length - 1];
+        this.ultimoDia = inicioAlertas.length - 2;
+        this.inicioPares = new int[ultimoDia + 2];
+        this.secuenciaPares = construirSecuenciaPares();
+    }
+
+    // ====== CONSULTAS DE ALERTAS ======
+    public int contarAlertasDelDia(int dia) {
+        return contarDelDia(inicioAlertas, dia);
+    }
+
+    public List<Mensaje> alertasDelDia(int dia) {
+        return tramo(0, desde(inicioAlertas, dia), hasta(inicioAlertas, dia));
+    }
+
+    public List<Mensaje> alertasHastaDia(int dia) {
+        return tramo(0, 0, hasta(inicioAlertas, dia));
+    }
+
+    // ====== CONSULTAS DE GUÍAS ======
+    public int contarGuiasDelDia(int dia) {
+        return contarDelDia(inicioGuias, dia);
+    }
+
+    public List<Mensaje> guiasDelDia(int dia) {
+        return tramo(totalAlertas, desde(inicioGuias, dia), hasta(inicioGuias, dia));
+    }
+
+    public List<Mensaje> guiasHastaDia(int dia) {
+        return tramo(totalAlertas, 0, hasta(inicioGuias, dia));
+    }
+
+    // ====== CONSULTAS DE PARES (ALERTA + GUÍA) ======
+    public int contarParesDelDia(int dia) {
+        return Math.max(contarAlertasDelDia(dia), contarGuiasDelDia(dia));
+    }
+
+    /**
+     * Cuántos mensajes de la secuencia de pares hay hasta el par `indice` del día `dia` incluido.
+     * indice = -1 → justo antes del día; indice >= pares del día → el día completo.
+     */
+    public int finDePares(int dia, int indice) {
+        if (dia < 0) return 0;
+        if (dia > ultimoDia) return secuenciaPares.length;
+
+        int alertas = contarAlertasDelDia(dia);
+        int guias = contarGuiasDelDia(dia);
+        int pares = Math.max(alertas, guias);
+        int mostrados = indice < 0 ? 0 : (indice >= pares - 1 ? pares : indice + 1);
+
+        return inicioPares[dia] + Math.min(mostrados, alertas) + Math.min(mostrados, guias);
+    }
+
+    /**
+     * Todos los pares desde el día 1 hasta el par `indice` del día `dia`, en orden cronológico.
+     * Es una vista contigua: para un tramo concreto basta con subList(finDePares(...), ...).
+     */
+    public List<Mensaje> paresHasta(int dia, int indice) {
+        int fin = finDePares(dia, indice);
+        if (fin == 0) return Collections.emptyList();
+        return new Secuencia(fuente, secuenciaPares, fin);
+    }
+
+    public int getUltimoDia() { return ultimoDia; }
+
+    // ====== BÚSQUEDA ======
+    /**
+     * Índice de todas las alertas. Las posiciones coinciden con alertasHastaDia(),
+     * así que limitar a un día es limitar a alertasHastaDia(dia).size().
+     */
+    public synchronized IndiceBusqueda indiceAlertas() {
+        if (indiceAlertas == null) indiceAlertas = new IndiceBusqueda(alertasHastaDia(ultimoDia));
+        return indiceAlertas;
+    }
+
+    public synchronized IndiceBusqueda indiceGuias() {
+        if (indiceGuias == null) indiceGuias = new IndiceBusqueda(guiasHastaDia(ultimoDia));
+        return indiceGuias;
+    }
+
+    /**
+     * El índice si ya está construido; null si no. Nunca espera ni lo construye:
+     * es lo que se consulta desde el hilo principal al escribir.
+     */
+    public IndiceBusqueda indiceAlertasListo() { return indiceAlertas; }
+
+    public IndiceBusqueda indiceGuiasListo() { return indiceGuias; }
+
+    // ====== MÉTODOS AUXILIARES ======
+    /**
+     * Copia la lista a un array y la ordena por día. Arrays.sort es estable con objetos,
+     * así que los mensajes de un mismo día conservan el orden del JSON.
+     */
+    private static Mensaje[] ordenarPorDia(List<Mensaje> lista) {
+        Mensaje[] array = new ArrayList<>(lista).toArray(new Mensaje[0]);
+        Arrays.sort(array, (a, b) -> Integer.compare(a.getDia(), b.getDia()));
+        return array;
+    }
+
+    /**
+     * Tabla de desplazamientos: indice[d] es la posición del primer mensaje con día >= d.
+     * Así los mensajes del día d ocupan el tramo [indice[d], indice[d + 1]).
+     */
+    private static int[] construirIndice(Mensaje[] ordenados, int ultimoDia) {
+        int[] indice = new int[ultimoDia + 2];
+        int posicion = 0;
+        for (int d = 0; d < indice.length; d++) {
+            while (posicion < ordenados.length && ordenados[posicion].getDia() < d) posicion++;
+            indice[d] = posicion;
+        }
+        return indice;
+    }
+
+    /**
+     * Recorre los índices por día (sin leer ningún mensaje) y coloca alertas y guías
+     * intercaladas por pares. Rellena inicioPares como suma acumulada.
+     */
+    private int[] construirSecuenciaPares() {
+        int totalGuias = inicioGuias[inicioGuias.length - 1];
+        int[] secuencia = new int[totalAlertas + totalGuias];
+        int k = 0;
+
+        for (int d = 0; d <= ultimoDia; d++) {
+            inicioPares[d] = k;
+            int alertas = inicioAlertas[d + 1] - inicioAlertas[d];
+            int guias = inicioGuias[d + 1] - inicioGuias[d];
+            for (int i = 0; i < Math.max(alertas, guias); i++) {
+                if (i < alertas) secuencia[k++] = inicioAlertas[d] + i;
+                if (i < guias) secuencia[k++] = totalAlertas + inicioGuias[d] + i;
+            }
+        }
+        inicioPares[ultimoDia + 1] = k;
+        return secuencia;
+    }
+
+    private static int desde(int[] indice, int dia) {
+        if (dia < 0) return 0;
+        if (dia >= indice.length) return indice[indice.length - 1];
+        return indice[dia];
+    }
+
+    private static int hasta(int[] indice, int dia) {
+        if (dia < 0) return 0;
+        if (dia + 1 >= indice.length) return indice[indice.length - 1];
+        return indice[dia + 1];
+    }
+
+    private static int contarDelDia(int[] indice, int dia) {
+        if (dia < 0 || dia + 1 >= indice.length) return 0;
+        return indice[dia + 1] - indice[dia];
+    }
+
+    /**
+     * Devuelve una vista de solo lectura del tramo, sin copiar los mensajes.
+     */
+    private List<Mensaje> tramo(int base, int desde, int hasta) {
+        if (desde >= hasta) return Collections.emptyList();
+        return new Tramo(fuente, base + desde, hasta - desde);
+    }
+
+    // Vista de solo lectura sobre posiciones consecutivas de la fuente
+    private static class Tramo extends AbstractList<Mensaje> implements RandomAccess {
+        private final Fuente fuente;
+        private final int inicio;
+        private final int tamanio;
+
+        Tramo(Fuente fuente, int inicio, int tamanio) {
+            this.fuente = fuente;
+            this.inicio = inicio;
+            this.tamanio = tamanio;
+        }
+
+        @Override
+        public Mensaje get(int posicion) {
+            if (posicion < 0 || posicion >= tamanio) throw new IndexOutOfBoundsException("posición " + posicion);
+            return fuente.leer(inicio + posicion);
+        }
+
+        @Override
+        public int size() { return tamanio; }
+    }
+
+    // Vista de solo lectura sobre los primeros `tamanio` mensajes de la secuencia de pares
+    private static class Secuencia extends AbstractList<Mensaje> implements RandomAccess {
+        private final Fuente fuente;
+        private final int[] posiciones;
+        private final int tamanio;
+
+        Secuencia(Fuente fuente, int[] posiciones, int tamanio) {
+            this.fuente = fuente;
+            this.posiciones = posiciones;
+            this.tamanio = tamanio;
+        }
+
+        @Override
+        public Mensaje get(int posicion) {
+            if (posicion < 0 || posicion >= tamanio) throw new IndexOutOfBoundsException("posición " + posicion);
+            return fuente.leer(posiciones[posicion]);
+        }
+
+        @Override
+        public int size() { return tamanio; }
+    }
+}
+
+/**
+ * ============================================================
+ * 🗂️ Clase: CatalogoEscenario.java
+ * ============================================================
+ *
+ * Guarda **todas las alertas y guías del escenario**, ordenadas por día
+ * e indexadas para consultarlas sin recorrer la lista entera.
+ *
+ * Los mensajes pueden venir de dos sitios (`Fuente`):
+ *  - un array en memoria, construido a partir de los JSON;
+ *  - el escenario compilado `escenario.bin`, que se lee bajo demanda
+ *    (cada día se decodifica una sola vez, la primera vez que se consulta).
+ *
+ * Es inmutable: se construye una sola vez (desde `GestorEscenario`) y se comparte
+ * entre el Controlador y todas las vistas.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funciones principales
+ * ------------------------------------------------------------
+ *
+ * 1️⃣ **contarAlertasDelDia(dia)** → número de alertas de un día (tiempo constante).
+ * 2️⃣ **alertasDelDia(dia) / guiasDelDia(dia)** → mensajes de un día concreto.
+ * 3️⃣ **alertasHastaDia(dia) / guiasHastaDia(dia)** → todos los mensajes hasta ese día.
+ * 4️⃣ **paresHasta(dia, indice)** → pares alerta + guía de todos los días hasta
+ *     el par indicado, seguidos en un solo tramo. `finDePares()` da la posición
+ *     de cualquier (día, índice) dentro de ese tramo en tiempo constante, así que
+ *     “los pares entre A y B” es un simple `subList`, sin recorrer días.
+ * 5️⃣ **indiceAlertas() / indiceGuias()** → `IndiceBusqueda` para buscar texto;
+ *     se construye la primera vez que se pide (en segundo plano) y se reutiliza.
+ *     `indiceAlertasListo()` / `indiceGuiasListo()` lo devuelven solo si ya
+ *     está construido (null si no), sin esperar: son los del hilo principal.
+ *
+ * Las listas devueltas son vistas de solo lectura sobre el array interno,
+ * así que no se copia ningún mensaje en cada consulta.
+ *
+ * Cada mensaje recibe un `id` estable (su posición en el catálogo), que usa
+ * `AdaptadorMensajes` para identificar las tarjetas entre actualizaciones.
+ *
+ * ------------------------------------------------------------
+ * 💡 En resumen:
+ * ------------------------------------------------------------
+ *
+ * `CatalogoEscenario.java` sustituye las lecturas repetidas de `alertas.json`
+ * y `guias.json` por un índice por día que se consulta en tiempo constante.
+ *
+ * ============================================================
+ */
@@ -0,0 +1,207 @@
+package com.example.apocalipsisgranada.modelo;
+
+import java.text.Normalizer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+
+public class IndiceBusqueda {
+
+    // ====== CAMPOS ======
+    private final List<Mensaje> mensajes;     // alertas o guías, ordenadas por día (la posición es la del catálogo)
+    private final String[] terminos;          // palabras normalizadas, en orden alfabético
+    private final int[][] apariciones;        // apariciones[t] → posiciones donde sale terminos[t] (ascendentes)
+
+    // ============================================================
+    // CONSTRUIR (una vez por escenario; se recorre cada mensaje una sola vez)
+    // ============================================================
+    public IndiceBusqueda(List<Mensaje> mensajes) {
+        this.mensajes = mensajes;
+
+        Map<String, Posiciones> porTermino = new HashMap<>();
+        List<String> palabras = new ArrayList<>();
+        for (int posicion = 0; posicion < mensajes.size(); posicion++) {
+            palabras.clear();
+            trocear(normalizar(mensajes.get(posicion).getTexto()), palabras);
+            for (int i = 0; i < palabras.size(); i++) {
+                Posiciones lista = porTermino.get(palabras.get(i));
+                if (lista == null) {
+                    lista = new Posiciones();
+                    porTermino.put(palabras.get(i), lista);
+                }
+                lista.anadir(posicion);
+            }
+        }
+
+        this.terminos = porTermino.keySet().toArray(new String[0]);
+        Arrays.sort(terminos);
+        this.apariciones = new int[terminos.length][];
+        for (int t = 0; t < terminos.length; t++) apariciones[t] = porTermino.get(terminos[t]).recortar();
+    }
+
+    // ============================================================
+    // BUSCAR
+    // - cada palabra de la consulta es un prefijo ("evac" encuentra "evacuación")
+    // - tienen que aparecer todas (Y)
+    // - solo mensajes en posiciones < limite (los desbloqueados hasta el día actual)
+    // Devuelve los resultados de más reciente a más antiguo, sin copiar mensajes.
+    // ============================================================
+    public List<Mensaje> buscar(String consulta, int limite) {
+        List<String> prefijos = new ArrayList<>();
+        trocear(normalizar(consulta), prefijos);
+        limite = Math.min(limite, mensajes.size());
+        if (prefijos.isEmpty() || limite <= 0) return new Resultados(mensajes, new int[0]);
+
+        // Un bit por mensaje desbloqueado; se van quedando los que cumplen todas las palabras
+        long[] encontrados = null;
+        for (int i = 0; i < prefijos.size(); i++) {
+            long[] conPrefijo = marcarPrefijo(prefijos.get(i), limite);
+            if (encontrados == null) {
+                encontrados = conPrefijo;
+            } else {
+                for (int b = 0; b < encontrados.length; b++) encontrados[b] &= conPrefijo[b];
+            }
+        }
+
+        int total = 0;
+        for (long bloque : encontrados) total += Long.bitCount(bloque);
+        int[] posiciones = new int[total];
+        int k = 0;
+        for (int b = encontrados.length - 1; b >= 0; b--) {
+            long bloque = encontrados[b];
+            while (bloque != 0) {
+                int bit = 63 - Long.numberOfLeadingZeros(bloque);
+                posiciones[k++] = b * 64 + bit;
+                bloque &= ~(1L << bit);
+            }
+        }
+        return new Resultados(mensajes, posiciones);
+    }
+
+    /**
+     * true si la consulta no tiene ninguna palabra buscable (vacía, espacios, solo emojis...).
+     */
+    public static boolean esVacia(String consulta) {
+        List<String> palabras = new ArrayList<>();
+        trocear(normalizar(consulta), palabras);
+        return palabras.isEmpty();
+    }
+
+    // Los términos que empiezan por el prefijo están seguidos en el array ordenado
+    private long[] marcarPrefijo(String prefijo, int limite) {
+        long[] bits = new long[(limite + 63) / 64];
+        int desde = primeraPosicion(prefijo);
+        int hasta = primeraPosicion(prefijo + Character.MAX_VALUE);
+
+        for (int t = desde; t < hasta; t++) {
+            int[] lista = apariciones[t];
+            for (int i = 0; i < lista.length && lista[i] < limite; i++) {
+                bits[lista[i] >>> 6] |= 1L << (lista[i] & 63);
+            }
+        }
+        return bits;
+    }
+
+    private int primeraPosicion(String clave) {
+        int posicion = Arrays.binarySearch(terminos, clave);
+        return posicion >= 0 ? posicion : -posicion - 1;
+    }
+
+    // ============================================================
+    // NORMALIZAR Y TROCEAR
+    // "¡Evacuación en ESPAÑA! 🚨" → "evacuacion", "en", "espana"
+    // ============================================================
+    static String normalizar(String texto) {
+        if (texto == null) return "";
+        // NFD separa la tilde de la letra (á → a + ´, ñ → n + ~) y luego se quita la tilde
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // Solo letras y números: signos y emojis separan palabras y no se indexan
+    static void trocear(String texto, List<String> palabras) {
+        int inicio = -1;
+        for (int i = 0; i < texto.length(); ) {
+            int c = texto.codePointAt(i);
+            boolean letra = Character.isLetterOrDigit(c);
+            if (letra && inicio < 0) inicio = i;
+            if (!letra && inicio >= 0) {
+                palabras.add(texto.substring(inicio, i));
+                inicio = -1;
+            }
+            i += Character.charCount(c);
+        }
+        if (inicio >= 0) palabras.add(texto.substring(inicio));
+    }
+
+    // ====== AUXILIARES ======
+    // Lista de enteros que crece sin cajas (Integer); un mensaje solo se apunta una vez por palabra
+    private static class Posiciones {
+        private int[] valores = new int[4];
+        private int tamanio = 0;
+
+        void anadir(int posicion) {
+            if (tamanio > 0 && valores[tamanio - 1] == posicion) return;
+            if (tamanio == valores.length) valores = Arrays.copyOf(valores, tamanio * 2);
+            valores[tamanio++] = posicion;
+        }
+
+        int[] recortar() {
+            return Arrays.copyOf(valores, tamanio);
+        }
+    }
+
+    // Vista de solo lectura de los resultados (lee cada mensaje al pedirlo)
+    private static class Resultados extends AbstractList<Mensaje> implements RandomAccess {
+        private final List<Mensaje> mensajes;
+        private final int[] posiciones;
+
+        Resultados(List<Mensaje> mensajes, int[] posiciones) {
+            this.mensajes = mensajes;
+            this.posiciones = posiciones;
+        }
+
+        @Override
+        public Mensaje get(int i) {
+            return mensajes.get(posiciones[i]);
+        }
+
+        @Override
+        public int size() { return posiciones.length; }
+    }
+}
+
+/**
+ * ============================================================
+ * 🔎 Clase: IndiceBusqueda.java
+ * ============================================================
+ *
+ * **Índice invertido** para buscar mientras se escribe en el historial
+ * de alertas y en las guías.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - Se construye una vez por escenario: cada palabra normalizada apunta
+ *    a las posiciones de los mensajes en los que aparece.
+ *  - Normalizar = quitar tildes y diéresis (á → a, ü → u, ñ → n) y pasar a
+ *    minúsculas. Los emojis y signos no son palabras: se ignoran.
+ *  - Las palabras están ordenadas: las que empiezan por un prefijo son un
+ *    tramo del array (dos búsquedas binarias).
+ *  - Una consulta de varias palabras marca un bit por mensaje para cada una
+ *    y se queda con los que tienen todas (Y).
+ *  - `limite` deja fuera los mensajes de días aún no desbloqueados: como
+ *    las posiciones van por día, basta con cortar por posición.
+ *
+ * Cada pulsación cuesta recorrer las posiciones de las palabras que
+ * encajan, no leer todos los mensajes.
+ *
+ * ============================================================
+ */
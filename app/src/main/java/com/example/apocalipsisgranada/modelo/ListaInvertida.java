@@ -0,0 +1,41 @@
+package com.example.apocalipsisgranada.modelo;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Vista de solo lectura de una lista en orden inverso (sin copiar los elementos).
+ */
+public class ListaInvertida<T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<T> original;
+
+    public ListaInvertida(List<T> original) {
+        this.original = original;
+    }
+
+    @Override
+    public T get(int posicion) {
+        return original.get(original.size() - 1 - posicion);
+    }
+
+    @Override
+    public int size() {
+        return original.size();
+    }
+}
+
+/**
+ * ============================================================
+ * 🔃 Clase: ListaInvertida.java
+ * ============================================================
+ *
+ * Las consultas de `CatalogoEscenario` devuelven los mensajes en orden
+ * cronológico, pero las pantallas los muestran de más nuevo a más antiguo.
+ *
+ * En lugar de copiar la lista y llamar a `Collections.reverse()`,
+ * `ListaInvertida` envuelve la vista original y traduce cada posición.
+ *
+ * ============================================================
+ */
@@ -5,8 +5,9 @@ import com.example.apocalipsisgranada.R;
 public class Mensaje {
 
     // ====== CAMPOS ======
-    private int dia;            // Día en el que se publica el mensaje
-    private String hora;        // Hora opcional del mensaje
+    private long id;            // Identificador estable (posición en el catálogo; negativo para mensajes fijos)
+    private int dia;            // Día en el que se publica el mensaje (la fecha se calcula al pintarlo)
+    private String hora;        // Hora opcional del mensaje (tal como viene en el JSON)
     private String texto;       // Contenido del mensaje
     private String sonido;      // "false", "notificacion", "alerta", "alarma"
     private String tipo;        // "alerta" o "guia"
@@ -23,6 +24,7 @@ public class Mensaje {
     }
 
     // ====== GETTERS ======
+    public long getId() { return id; }
     public int getDia() { return dia; }
     public String getHora() { return hora; }
     public String getTexto() { return texto; }
@@ -30,6 +32,7 @@ public class Mensaje {
     public String getTipo() { return tipo; }
 
     // ====== SETTERS ======
+    public void setId(long id) { this.id = id; }
     public void setDia(int dia) { this.dia = dia; }
     public void setHora(String hora) { this.hora = hora; }
     public void setTexto(String texto) { this.texto = texto; }
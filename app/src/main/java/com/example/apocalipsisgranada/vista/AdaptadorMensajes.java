@@ -1,19 +1,28 @@
 package com.example.apocalipsisgranada.vista;
 
 import android.content.Context;
-import android.view.LayoutInflater;
+import android.graphics.drawable.Drawable;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.apocalipsisgranada.R;
+import com.example.apocalipsisgranada.controlador.Controlador;
+import com.example.apocalipsisgranada.controlador.Metricas;
 import com.example.apocalipsisgranada.modelo.Mensaje;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Cuando quieres mostrar una lista de elementos (como los mensajes o alertas), se usa un RecyclerView.
@@ -40,42 +49,204 @@ public class AdaptadorMensajes extends RecyclerView.Adapter<AdaptadorMensajes.Vi
      */
 
 
-    private final List<Mensaje> listaDeMensajes;
+    private List<Mensaje> listaDeMensajes;   // lista propia, o una FuentePaginada (Guía / Historial)
+    private FuentePaginada fuentePaginada;   // no es null solo en modo paginado
     private final Context contexto;
+    private long fechaInicioPintada;   // fechaInicio con la que se pintaron las fechas actuales
+
+    // ====== TIPOS DE TARJETA (cada uno con su estilo, aplicado una vez al crear la tarjeta) ======
+    static final int TIPO_ALERTA = 0;
+    static final int TIPO_GUIA = 1;
+    // Mensaje fijo del día 0 y avisos ("sin resultados"): tarjeta aparte, con los colores de su pantalla
+    static final int TIPO_SISTEMA_ALERTA = 2;
+    static final int TIPO_SISTEMA_GUIA = 3;
+    private static final int NUM_TIPOS = 4;
+
+    // Colores y fondos resueltos una sola vez por adaptador, indexados por tipo
+    private final Drawable.ConstantState[] fondos = new Drawable.ConstantState[NUM_TIPOS];
+    private final int[] coloresTexto = new int[NUM_TIPOS];
+    private final int[] coloresFecha = new int[NUM_TIPOS];
+
+    // Textos medidos de antemano (Precargador) para los mensajes que van a aparecer
+    private static final int MAX_TEXTOS_MEDIDOS = 8;
+    private final Map<Long, PrecomputedTextCompat> textosMedidos = new HashMap<>();
+    private PrecomputedTextCompat.Params parametrosTexto;   // estilo del texto de las tarjetas
 
     // 🔹 Constructor
     public AdaptadorMensajes(List<Mensaje> listaDeMensajes, Context contexto) {
-        this.listaDeMensajes = listaDeMensajes;
+        this.listaDeMensajes = new ArrayList<>(listaDeMensajes); // copia propia: solo cambia con los métodos de abajo
         this.contexto = contexto;
+        this.fechaInicioPintada = Controlador.obtenerFechaInicio(contexto);
+        setHasStableIds(true); // cada mensaje tiene un id fijo → el RecyclerView reutiliza sus tarjetas
+        resolverEstilos();
+    }
+
+    // 🔹 Estilo de cada tipo: se busca en los recursos aquí y ya no al hacer scroll
+    private void resolverEstilos() {
+        definirEstilo(TIPO_ALERTA, R.drawable.tarjeta_blanca, R.color.textoOscuro, R.color.textoGris);
+        definirEstilo(TIPO_GUIA, R.drawable.tarjeta_azul_claro, R.color.white, R.color.textoAzul); // 🩵 fecha visible
+        definirEstilo(TIPO_SISTEMA_ALERTA, R.drawable.tarjeta_blanca, R.color.textoOscuro, R.color.textoGris);
+        definirEstilo(TIPO_SISTEMA_GUIA, R.drawable.tarjeta_azul_claro, R.color.white, R.color.textoAzul);
+    }
+
+    private void definirEstilo(int tipo, int fondo, int colorTexto, int colorFecha) {
+        fondos[tipo] = contexto.getDrawable(fondo).getConstantState();   // cada tarjeta crea su copia barata
+        coloresTexto[tipo] = contexto.getColor(colorTexto);
+        coloresFecha[tipo] = contexto.getColor(colorFecha);
+    }
+
+    // ============================================================
+    // ACTUALIZACIONES INCREMENTALES (sin crear un adaptador nuevo)
+    // ============================================================
+
+    // 🔹 Mensajes nuevos arriba del todo (al avanzar) — modo lista, no paginado
+    public void insertarAlInicio(List<Mensaje> nuevos) {
+        if (nuevos.isEmpty()) return;
+        listaDeMensajes.addAll(0, nuevos);
+        notifyItemRangeInserted(0, nuevos.size());
+    }
+
+    // 🔹 Mensajes más antiguos al final (al rellenar días anteriores) — modo lista, no paginado
+    public void anadirAlFinal(List<Mensaje> antiguos) {
+        if (antiguos.isEmpty()) return;
+        int inicio = listaDeMensajes.size();
+        listaDeMensajes.addAll(antiguos);
+        notifyItemRangeInserted(inicio, antiguos.size());
+    }
+
+    // 🔹 Lista completa nueva (al reiniciar o recargar): solo se notifican las diferencias
+    public void actualizarLista(List<Mensaje> nuevaLista) {
+        List<Mensaje> anterior = listaDeMensajes;
+        List<Mensaje> nueva = new ArrayList<>(nuevaLista);
+
+        // Tras un reinicio cambia fechaInicio: todas las fechas pintadas hay que repintarlas
+        long fechaInicio = Controlador.obtenerFechaInicio(contexto);
+        boolean mismasFechas = fechaInicio == fechaInicioPintada;
+        fechaInicioPintada = fechaInicio;
+
+        DiffUtil.DiffResult diferencias = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() { return anterior.size(); }
+
+            @Override
+            public int getNewListSize() { return nueva.size(); }
+
+            @Override
+            public boolean areItemsTheSame(int posAnterior, int posNueva) {
+                return anterior.get(posAnterior).getId() == nueva.get(posNueva).getId();
+            }
+
+            @Override
+            public boolean areContentsTheSame(int posAnterior, int posNueva) {
+                Mensaje a = anterior.get(posAnterior);
+                Mensaje b = nueva.get(posNueva);
+                return mismasFechas
+                        && a.getDia() == b.getDia()
+                        && a.getTexto().equals(b.getTexto())
+                        && a.getTipo().equals(b.getTipo());
+            }
+        });
+
+        listaDeMensajes = nueva;
+        fuentePaginada = null;
+        diferencias.dispatchUpdatesTo(this);
+    }
+
+    // 🔹 Lista por páginas (Guía / Historial): solo se leen las páginas cercanas a lo visible
+    public void mostrarPaginado(FuentePaginada nueva) {
+        List<Mensaje> anterior = listaDeMensajes;
+        listaDeMensajes = nueva;
+        fuentePaginada = nueva;
+
+        long fechaInicio = Controlador.obtenerFechaInicio(contexto);
+        boolean mismasFechas = fechaInicio == fechaInicioPintada;
+        fechaInicioPintada = fechaInicio;
+
+        // Al avanzar, la lista nueva es la anterior con mensajes nuevos arriba:
+        // basta con comparar el primer mensaje antiguo (sin recorrer toda la lista)
+        int nuevos = nueva.size() - anterior.size();
+        if (mismasFechas && !anterior.isEmpty() && nuevos >= 0
+                && nueva.get(nuevos).getId() == anterior.get(0).getId()) {
+            if (nuevos > 0) notifyItemRangeInserted(0, nuevos);
+        } else {
+            notifyDataSetChanged();
+        }
+    }
+
+    // 🔹 El scroll mueve la ventana de páginas (descarta las lejanas y adelanta la siguiente)
+    private final RecyclerView.OnScrollListener alDesplazar = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recycler, int dx, int dy) {
+            if (fuentePaginada == null || !(recycler.getLayoutManager() instanceof LinearLayoutManager)) return;
+
+            LinearLayoutManager gestor = (LinearLayoutManager) recycler.getLayoutManager();
+            int primera = gestor.findFirstVisibleItemPosition();
+            int ultima = gestor.findLastVisibleItemPosition();
+            if (primera == RecyclerView.NO_POSITION) return;
+
+            fuentePaginada.moverVentana(primera, ultima, Integer.signum(dy));
+        }
+    };
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recycler) {
+        super.onAttachedToRecyclerView(recycler);
+        recycler.addOnScrollListener(alDesplazar);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recycler) {
+        super.onDetachedFromRecyclerView(recycler);
+        recycler.removeOnScrollListener(alDesplazar);
+    }
+
+    // 🔹 Medir ya el texto de un mensaje que aparecerá pronto (en tiempo libre, no al pintarlo)
+    public void precalcularTexto(Mensaje mensaje) {
+        if (parametrosTexto == null || textosMedidos.containsKey(mensaje.getId())) return;
+        if (textosMedidos.size() >= MAX_TEXTOS_MEDIDOS) textosMedidos.clear();
+        textosMedidos.put(mensaje.getId(), PrecomputedTextCompat.create(mensaje.getTexto(), parametrosTexto));
+    }
+
+    // 🔹 0. Tipo de tarjeta de cada posición (alerta, guía o mensaje del sistema de esa pantalla)
+    @Override
+    public int getItemViewType(int posicion) {
+        Mensaje mensaje = listaDeMensajes.get(posicion);
+        boolean guia = "guia".equals(mensaje.getTipo());
+        if (mensaje.getDia() == 0) return guia ? TIPO_SISTEMA_GUIA : TIPO_SISTEMA_ALERTA;
+        return guia ? TIPO_GUIA : TIPO_ALERTA;
     }
 
     // 🔹 1. Crear la vista - Devuelve un objeto de tipo VistaMensaje
+    // El estilo se aplica aquí, una vez: una tarjeta de guía solo se reutiliza para otra guía
     @NonNull //Este parámetro o valor nunca será null, así que puedes usarlo sin comprobarlo.
     @Override
     public VistaMensaje onCreateViewHolder(@NonNull ViewGroup padre, int tipoVista) { //El contenedor (la vista padre donde se colocan los ítems) nunca será null.
-        View vista = LayoutInflater.from(contexto).inflate(R.layout.item_mensajes, padre, false);
-        return new VistaMensaje(vista);
+        // Inflador de la aplicación (no la pantalla): la tarjeta puede acabar en la reserva compartida
+        View vista = ReservaTarjetas.inflador(contexto).inflate(R.layout.item_mensajes, padre, false);
+        VistaMensaje tarjeta = new VistaMensaje(vista);
+
+        tarjeta.contenedorMensaje.setBackground(fondos[tipoVista].newDrawable(contexto.getResources()));
+        tarjeta.textoMensaje.setTextColor(coloresTexto[tipoVista]);
+        tarjeta.textoFecha.setTextColor(coloresFecha[tipoVista]);
+        return tarjeta;
     }
-    // 🔹 2. Rellena la vista con datos - Recibe un objeto VistaMensaje
+    // 🔹 2. Rellena la vista con datos (solo textos) - Recibe un objeto VistaMensaje
     @Override
     public void onBindViewHolder(@NonNull VistaMensaje vista, int posicion) { //El objeto “molde” de cada mensaje (ViewHolder) siempre existe.
-        Mensaje mensaje = listaDeMensajes.get(posicion);
+        long inicio = Metricas.empezar(Metricas.PINTAR_TARJETA);
+        try {
+            Mensaje mensaje = listaDeMensajes.get(posicion);
 
-        vista.textoMensaje.setText(mensaje.getTexto());
-        vista.textoFecha.setText(mensaje.getHora()); // aquí guardamos la fecha simulada
-
-        switch (mensaje.getTipo()) {
-            case "guia":
-                vista.contenedorMensaje.setBackgroundResource(R.drawable.tarjeta_azul_claro);
-                vista.textoMensaje.setTextColor(contexto.getColor(R.color.white));
-                vista.textoFecha.setTextColor(contexto.getColor(R.color.textoAzul)); // 🩵 para que se vea
-                break;
-            case "alerta":
-            default:
-                vista.contenedorMensaje.setBackgroundResource(R.drawable.tarjeta_blanca);
-                vista.textoMensaje.setTextColor(contexto.getColor(R.color.textoOscuro));
-                vista.textoFecha.setTextColor(contexto.getColor(R.color.textoGris));
-                break;
+            if (parametrosTexto == null) parametrosTexto = TextViewCompat.getTextMetricsParams(vista.textoMensaje);
+            PrecomputedTextCompat medido = textosMedidos.remove(mensaje.getId());
+            if (medido != null) {
+                TextViewCompat.setPrecomputedText(vista.textoMensaje, medido); // ya medido: sin trabajo de texto aquí
+            } else {
+                vista.textoMensaje.setText(mensaje.getTexto());
+            }
+            vista.textoFecha.setText(Controlador.obtenerFechaSimulada(contexto, mensaje.getDia())); // fecha simulada (ya formateada en caché)
+        } finally {
+            Metricas.terminar(Metricas.PINTAR_TARJETA, inicio);
         }
     }
     // 🔹 3. Indicar cuántos elementos hay en la lista
@@ -84,6 +255,12 @@ public class AdaptadorMensajes extends RecyclerView.Adapter<AdaptadorMensajes.Vi
         return listaDeMensajes.size();
     }
 
+    // 🔹 4. Id estable de cada elemento (permite animar y conservar el scroll)
+    @Override
+    public long getItemId(int posicion) {
+        return listaDeMensajes.get(posicion).getId();
+    }
+
     // 🔹 Clase interna que representa una fila (el item)
 
     /**
@@ -120,18 +297,45 @@ public class AdaptadorMensajes extends RecyclerView.Adapter<AdaptadorMensajes.Vi
  * ⚙️ Funciones principales
  * ------------------------------------------------------------
  *
- * 1️⃣ **onCreateViewHolder()**
- *     - Infla el layout de tarjeta (`item_mensaje.xml`).
+ * 1️⃣ **getItemViewType() / onCreateViewHolder()**
+ *     - Cuatro tipos de tarjeta, cada uno con su estilo:
+ *         🟡 Alerta → fondo claro / texto oscuro.
+ *         🔵 Guía → fondo azul / texto blanco.
+ *         ⚪ Sistema (día 0 y avisos) → tipo propio, con los colores
+ *            de la pantalla en la que sale (alerta o guía).
+ *     - Colores y fondos se resuelven una vez por adaptador (`resolverEstilos()`)
+ *       y se aplican al inflar la tarjeta (`item_mensajes.xml`). Una tarjeta solo
+ *       se reutiliza para mensajes de su mismo tipo.
  *
  * 2️⃣ **onBindViewHolder()**
- *     - Asigna los datos del mensaje (texto, fecha, tipo).
- *     - Cambia el color y estilo según el tipo de mensaje:
- *         🟡 Alerta → fondo amarillo / texto oscuro.
- *         🔵 Guía → fondo azul / texto blanco.
+ *     - Solo asigna textos: el del mensaje y la fecha simulada
+ *       (`Controlador.obtenerFechaSimulada()`, formateada una vez por día).
+ *     - Al hacer scroll no se buscan recursos ni se cambian fondos.
  *
  * 3️⃣ **getItemCount()**
  *     - Devuelve el número total de mensajes a mostrar.
  *
+ * 4️⃣ **Actualizaciones incrementales**
+ *     - `insertarAlInicio()` → mensajes recién desbloqueados arriba.
+ *     - `anadirAlFinal()` → días anteriores que se van rellenando.
+ *     - `actualizarLista()` → recarga completa (reinicio) con `DiffUtil`,
+ *       que solo anima lo que ha cambiado.
+ *     - Ids estables (`getItemId`) para conservar tarjetas y scroll.
+ *
+ * 5️⃣ **Modo paginado** (`mostrarPaginado()`, Guía e Historial)
+ *     - Los datos vienen de una `FuentePaginada` y no se copian.
+ *     - Al hacer scroll se mueve la ventana de páginas cargadas.
+ *     - Al avanzar solo se notifican los mensajes nuevos de arriba.
+ *
+ * 6️⃣ **Textos medidos de antemano** (`precalcularTexto()`)
+ *     - El `Precargador` mide en tiempo libre el texto del siguiente mensaje
+ *       (`PrecomputedTextCompat`) y al pintarlo solo se asigna.
+ *
+ * 7️⃣ **Reserva compartida** (`ReservaTarjetas`)
+ *     - Principal, Guía e Historial comparten las tarjetas ya creadas.
+ *     - Por eso se inflan con el inflador de la reserva (aplicación + tema,
+ *       mismas vistas Material que la pantalla), no con la pantalla.
+ *
  * ------------------------------------------------------------
  * 🗂️ Elementos visuales manejados
  * ------------------------------------------------------------
@@ -146,7 +350,8 @@ public class AdaptadorMensajes extends RecyclerView.Adapter<AdaptadorMensajes.Vi
  *
  * 1️⃣ La vista crea el adaptador pasando la lista de mensajes.
  * 2️⃣ Cada elemento se muestra en el RecyclerView.
- * 3️⃣ Si el día cambia, la lista se actualiza con los nuevos mensajes.
+ * 3️⃣ Si el día cambia, se insertan solo los mensajes nuevos (el adaptador
+ *     no se vuelve a crear, así que no se pierde el scroll).
  *
  * ------------------------------------------------------------
  * 💡 En resumen:
@@ -0,0 +1,114 @@
+package com.example.apocalipsisgranada.vista;
+
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+public class FuentePaginada extends AbstractList<Mensaje> implements RandomAccess {
+
+    public static final int TAMANIO_PAGINA = 50;   // mensajes por página
+    private static final int PAGINAS_MARGEN = 2;   // páginas que se conservan a cada lado de lo visible
+
+    // ====== CAMPOS ======
+    private final List<Mensaje> origen;                          // vista del catálogo (no se copia entera)
+    private final Mensaje alFinal;                               // mensaje fijo del día 0 (puede ser null)
+    private final Map<Integer, Mensaje[]> paginas = new HashMap<>(); // páginas leídas: número → mensajes
+
+    public FuentePaginada(List<Mensaje> origen, Mensaje alFinal) {
+        this.origen = origen;
+        this.alFinal = alFinal;
+    }
+
+    // ============================================================
+    // ACCESO POR POSICIÓN (lee la página entera la primera vez)
+    // ============================================================
+    @Override
+    public Mensaje get(int posicion) {
+        if (posicion < 0 || posicion >= size()) throw new IndexOutOfBoundsException("posición " + posicion);
+
+        Mensaje[] pagina = paginas.get(posicion / TAMANIO_PAGINA);
+        if (pagina == null) pagina = cargarPagina(posicion / TAMANIO_PAGINA);
+        return pagina[posicion % TAMANIO_PAGINA];
+    }
+
+    @Override
+    public int size() {
+        return origen.size() + (alFinal != null ? 1 : 0);
+    }
+
+    // ============================================================
+    // MOVER VENTANA (se llama al hacer scroll)
+    // - descarta las páginas lejanas
+    // - adelanta la siguiente página en la dirección del scroll
+    // ============================================================
+    public void moverVentana(int primeraVisible, int ultimaVisible, int direccion) {
+        int paginaPrimera = primeraVisible / TAMANIO_PAGINA;
+        int paginaUltima = ultimaVisible / TAMANIO_PAGINA;
+        int desde = paginaPrimera - PAGINAS_MARGEN;
+        int hasta = paginaUltima + PAGINAS_MARGEN;
+
+        Iterator<Integer> numeros = paginas.keySet().iterator();
+        while (numeros.hasNext()) {
+            int numero = numeros.next();
+            if (numero < desde || numero > hasta) numeros.remove();
+        }
+
+        if (direccion > 0) precargar(paginaUltima + 1);
+        else if (direccion < 0) precargar(paginaPrimera - 1);
+    }
+
+    public int paginasCargadas() {
+        return paginas.size();
+    }
+
+    private void precargar(int numero) {
+        int total = (size() + TAMANIO_PAGINA - 1) / TAMANIO_PAGINA;
+        if (numero >= 0 && numero < total && !paginas.containsKey(numero)) cargarPagina(numero);
+    }
+
+    private Mensaje[] cargarPagina(int numero) {
+        int inicio = numero * TAMANIO_PAGINA;
+        int fin = Math.min(size(), inicio + TAMANIO_PAGINA);
+        Mensaje[] pagina = new Mensaje[fin - inicio];
+
+        for (int i = inicio; i < fin; i++) {
+            pagina[i - inicio] = i < origen.size() ? origen.get(i) : alFinal;
+        }
+        paginas.put(numero, pagina);
+        return pagina;
+    }
+}
+
+/**
+ * ============================================================
+ * 📄 Clase: FuentePaginada.java
+ * ============================================================
+ *
+ * Fuente de datos **por páginas** para `AdaptadorMensajes`
+ * (la usan `VistaGuia` y `VistaHistorial`).
+ *
+ * En lugar de copiar todas las guías o alertas hasta el día actual a una
+ * lista, envuelve la vista del `CatalogoEscenario` y solo lee los mensajes
+ * de las páginas cercanas a lo que se ve en pantalla.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - Páginas de `TAMANIO_PAGINA` mensajes, leídas la primera vez que se piden.
+ *  - `moverVentana()` (desde el scroll del RecyclerView):
+ *      · Conserva `PAGINAS_MARGEN` páginas a cada lado de lo visible.
+ *      · Descarta el resto (se volverán a leer si el usuario vuelve).
+ *      · Adelanta la página siguiente en la dirección del scroll.
+ *  - El mensaje fijo del día 0 va siempre al final.
+ *
+ * Con el escenario compilado (`escenario.bin`) los mensajes se decodifican
+ * al leerlos, así que en memoria solo están las páginas de la ventana.
+ *
+ * ============================================================
+ */
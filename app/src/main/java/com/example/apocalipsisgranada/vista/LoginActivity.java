@@ -2,13 +2,15 @@ package com.example.apocalipsisgranada.vista;
 
 import androidx.appcompat.app.AppCompatActivity;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.Toast;
 
 import com.example.apocalipsisgranada.R;
+import com.example.apocalipsisgranada.controlador.AlmacenEstado;
+import com.example.apocalipsisgranada.controlador.GestorEscenario;
+import com.example.apocalipsisgranada.controlador.MotorSonido;
 import com.example.apocalipsisgranada.controlador.Preferencias;
 
 /**
@@ -32,12 +34,15 @@ public class LoginActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_login);
 
+        // Empezar a leer alertas y guías en segundo plano mientras se muestra el login
+        GestorEscenario.precargar(this);
+        // ...y cargar los sonidos cortos para que las alertas suenen sin retraso
+        MotorSonido.iniciar(this);
+
         campoNombre = findViewById(R.id.campoNombre);
         campoContrasena = findViewById(R.id.campoContrasena);
         botonAcceder = findViewById(R.id.botonAcceder);
 
-        SharedPreferences prefs = getSharedPreferences("configuracion", MODE_PRIVATE);
-
         // Si ya hay usuario guardado, saltar directo al menú principal
         if (Preferencias.hayUsuario(this)) {
             startActivity(new Intent(this, VistaPrincipal.class));
@@ -59,9 +64,7 @@ public class LoginActivity extends AppCompatActivity {
                 Preferencias.guardarNombreUsuario(this, nombre);
 
                 // 3️⃣ Marcar que es el primer arranque
-                prefs.edit()
-                        .putBoolean("primer_arranque", true)
-                        .apply();
+                AlmacenEstado.obtener(this).actualizar(e -> e.conPrimerArranque(true));
 
                 // 4️⃣ Ir a la pantalla principal
                 startActivity(new Intent(LoginActivity.this, VistaPrincipal.class));
@@ -1,17 +1,35 @@
 package com.example.apocalipsisgranada.vista;
 
 import android.app.Activity;
-import android.content.Context;
+import android.app.Application;
+import android.content.ComponentCallbacks2;
 import android.content.Intent;
-import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import com.example.apocalipsisgranada.R;
+import com.example.apocalipsisgranada.controlador.AlmacenEstado;
+import com.example.apocalipsisgranada.controlador.CambioEstado;
 import com.example.apocalipsisgranada.controlador.Controlador;
+import com.example.apocalipsisgranada.controlador.EstadoSimulacion;
+import com.example.apocalipsisgranada.controlador.Metricas;
+import com.example.apocalipsisgranada.controlador.MonitorFotogramas;
+import com.example.apocalipsisgranada.controlador.Preferencias;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 public class ManejadorVistas {
 
@@ -20,10 +38,16 @@ public class ManejadorVistas {
     // (se llama en onCreate() de cada Activity de la app salvo Login)
     // ============================================================
     public static void configurarElementosComunes(Activity activity) {
-        SharedPreferences prefs = activity.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-        boolean modoDev = prefs.getBoolean("modoDesarrollador", false);
-        int diaActual = prefs.getInt("diaActual", 1);
-        String nombreUsuario = prefs.getString("nombreUsuario", "Usuario");
+        EstadoSimulacion estado = AlmacenEstado.obtener(activity).actual();
+        boolean modoDev = estado.isModoDesarrollador();
+        int diaActual = estado.getDiaActual();
+        String nombreUsuario = estado.getNombreUsuario().isEmpty() ? "Usuario" : estado.getNombreUsuario();
+
+        // Secciones vivas: refresco de métricas y recorte con poca memoria
+        registrarSeccion(activity);
+
+        // Monitor de fotogramas: se engancha solo a las pantallas que se muestran en modo desarrollador
+        MonitorFotogramas.iniciar(activity);
 
         // Saludo ("Hola ANA") y fecha simulada ("Hoy es ...")
         TextView textoSaludo = activity.findViewById(R.id.textoSaludo);
@@ -34,7 +58,7 @@ public class ManejadorVistas {
         }
 
         if (textoFecha != null) {
-            textoFecha.setText("Hoy es " + Controlador.obtenerFechaSimulada(prefs, diaActual));
+            textoFecha.setText("Hoy es " + Controlador.obtenerFechaSimulada(activity, diaActual));
         }
 
         // Mostrar / ocultar barra "🧪 Modo desarrollador — Día X"
@@ -54,6 +78,31 @@ public class ManejadorVistas {
 
         // Colores según modo desarrollador
         actualizarColoresModoDesarrollador(activity);
+
+        // A partir de aquí la cabecera se mantiene sola: solo se repinta lo que cambie
+        AlmacenEstado.obtener(activity).observar(activity, cambio -> alCambiarEstado(activity, cambio));
+    }
+
+    // ============================================================
+    // CABECERA SUSCRITA AL ESTADO
+    // (también en las secciones que no se ven: al volver ya están al día)
+    // ============================================================
+    private static void alCambiarEstado(Activity activity, CambioEstado cambio) {
+        EstadoSimulacion estado = cambio.getActual();
+
+        if (cambio.cambioDia()) {
+            actualizarCabecera(activity, Controlador.obtenerFechaSimulada(activity, estado.getDiaActual()));
+        }
+        if (cambio.cambioModo()) {
+            aplicarModoDesarrollador(activity);   // ya incluye la franja con el día
+        } else if (cambio.cambioDia()) {
+            mostrarTextoModoDesarrollador(activity, estado.getDiaActual());
+        }
+        if (cambio.cambioUsuario()) {
+            TextView textoSaludo = activity.findViewById(R.id.textoSaludo);
+            String nombre = estado.getNombreUsuario().isEmpty() ? "Usuario" : estado.getNombreUsuario();
+            if (textoSaludo != null) textoSaludo.setText("Hola " + nombre.toUpperCase());
+        }
     }
 
 
@@ -73,8 +122,7 @@ public class ManejadorVistas {
     // (la barra amarilla/verde que dice "🧪 Modo desarrollador — Día X")
     // ============================================================
     public static void mostrarTextoModoDesarrollador(Activity activity, int diaActual) {
-        SharedPreferences prefs = activity.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-        boolean modoDev = prefs.getBoolean("modoDesarrollador", false);
+        boolean modoDev = AlmacenEstado.obtener(activity).actual().isModoDesarrollador();
 
         TextView textoModo = activity.findViewById(R.id.textoModo);
         if (textoModo != null) {
@@ -90,6 +138,167 @@ public class ManejadorVistas {
         if (contenedorBotones != null) {
             contenedorBotones.setVisibility(modoDev ? View.VISIBLE : View.GONE);
         }
+
+        mostrarMetricas(activity, modoDev);
+    }
+
+    // ============================================================
+    // MÉTRICAS EN VIVO (debajo de la barra del modo desarrollador)
+    // p50/p99 y contadores de `Metricas` y fotogramas lentos por pantalla, cada segundo mientras se ve.
+    // Tocar → guarda un CSV; pulsación larga → empieza de cero
+    // ============================================================
+    private static final long REFRESCO_METRICAS_MS = 1000;
+
+    // Pantalla que se ve ahora mismo (solo hilo principal): solo ella refresca sus métricas
+    private static Activity visible;
+
+    private static String resumenMetricas() {
+        String fotogramas = MonitorFotogramas.resumen();
+        return fotogramas.isEmpty() ? Metricas.resumen() : Metricas.resumen() + "\n" + fotogramas;
+    }
+
+    private static void mostrarMetricas(Activity activity, boolean modoDev) {
+        TextView textoMetricas = activity.findViewById(R.id.textoMetricas);
+        if (textoMetricas == null) return;
+
+        textoMetricas.setVisibility(modoDev ? View.VISIBLE : View.GONE);
+        if (!modoDev) {
+            pararMetricas(activity);
+            return;
+        }
+        if (textoMetricas.getTag(R.id.textoMetricas) != null) {   // ya preparadas: solo volver a arrancar
+            if (visible == activity) arrancarMetricas(activity);
+            return;
+        }
+
+        Runnable refrescar = new Runnable() {
+            @Override
+            public void run() {
+                textoMetricas.setText(resumenMetricas());
+                textoMetricas.postDelayed(this, REFRESCO_METRICAS_MS);   // hasta que la pantalla deja de verse (onStop)
+            }
+        };
+        textoMetricas.setTag(R.id.textoMetricas, refrescar);
+        if (visible == activity) arrancarMetricas(activity);   // si no, empieza en onStart
+
+        textoMetricas.setOnClickListener(v -> {
+            try {
+                File archivo = Metricas.volcar(activity);
+                MonitorFotogramas.volcar(activity);   // mismo directorio, fotogramas-<fecha>.csv
+                Toast.makeText(activity, "Métricas guardadas en " + archivo.getParent(), Toast.LENGTH_LONG).show();
+            } catch (IOException e) {
+                e.printStackTrace();
+                Toast.makeText(activity, "No se pudieron guardar las métricas", Toast.LENGTH_SHORT).show();
+            }
+        });
+        textoMetricas.setOnLongClickListener(v -> {
+            Metricas.borrar();
+            MonitorFotogramas.borrar();
+            textoMetricas.setText(resumenMetricas());
+            return true;
+        });
+    }
+
+
+    private static void arrancarMetricas(Activity activity) {
+        TextView textoMetricas = activity.findViewById(R.id.textoMetricas);
+        if (textoMetricas == null || textoMetricas.getVisibility() != View.VISIBLE) return;
+        Runnable refrescar = (Runnable) textoMetricas.getTag(R.id.textoMetricas);
+        if (refrescar == null) return;
+        textoMetricas.removeCallbacks(refrescar);   // nunca dos refrescos a la vez
+        textoMetricas.post(refrescar);
+    }
+
+    private static void pararMetricas(Activity activity) {
+        TextView textoMetricas = activity.findViewById(R.id.textoMetricas);
+        if (textoMetricas == null) return;
+        Runnable refrescar = (Runnable) textoMetricas.getTag(R.id.textoMetricas);
+        if (refrescar != null) textoMetricas.removeCallbacks(refrescar);
+    }
+
+    // ============================================================
+    // SECCIONES VIVAS (REORDER_TO_FRONT)
+    // Las ocultas se conservan para volver a ellas sin recrearlas; el precio es
+    // memoria: hasta cuatro Activities con sus listas. Con poca memoria se cierran
+    // las ocultas (salvo Principal y la última vista) y se vacía la reserva de
+    // tarjetas; la pestaña correspondiente la vuelve a crear si se toca
+    // ============================================================
+    private static final List<Activity> secciones = new ArrayList<>();   // solo hilo principal
+    private static Activity ultimaVista;
+    private static boolean cicloRegistrado;
+
+    private static void registrarSeccion(Activity activity) {
+        if (!cicloRegistrado) {
+            activity.getApplication().registerActivityLifecycleCallbacks(alCambiarPantalla);
+            activity.getApplication().registerComponentCallbacks(alFaltarMemoria);
+            cicloRegistrado = true;
+        }
+        secciones.add(activity);
+    }
+
+    private static void recortarSecciones() {
+        for (Activity seccion : new ArrayList<>(secciones)) {
+            if (seccion == visible || seccion == ultimaVista || seccion instanceof VistaPrincipal) continue;
+            if (!seccion.isFinishing()) seccion.finish();
+        }
+        ReservaTarjetas.vaciar();
+    }
+
+    private static final ComponentCallbacks2 alFaltarMemoria = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int nivel) {
+            // UI_HIDDEN es solo pasar a segundo plano: ahí aún no sobra nada que soltar
+            if (nivel >= TRIM_MEMORY_RUNNING_LOW && nivel != TRIM_MEMORY_UI_HIDDEN) recortarSecciones();
+        }
+
+        @Override
+        public void onLowMemory() {
+            recortarSecciones();
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration configuracion) {
+            ReservaTarjetas.alCambiarConfiguracion();   // tarjetas y tema de la configuración anterior
+        }
+    };
+
+    // El refresco de métricas va de onStart a onStop
+    private static final Application.ActivityLifecycleCallbacks alCambiarPantalla = new Application.ActivityLifecycleCallbacks() {
+        @Override
+        public void onActivityStarted(Activity activity) {
+            visible = activity;
+            ultimaVista = activity;
+            arrancarMetricas(activity);
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+            if (visible == activity) visible = null;
+            pararMetricas(activity);
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            secciones.remove(activity);
+            if (ultimaVista == activity) ultimaVista = null;
+        }
+
+        @Override public void onActivityCreated(Activity activity, Bundle estadoGuardado) {}
+        @Override public void onActivityResumed(Activity activity) {}
+        @Override public void onActivityPaused(Activity activity) {}
+        @Override public void onActivitySaveInstanceState(Activity activity, Bundle estadoSalida) {}
+    };
+
+    // ============================================================
+    // CAMBIAR DE MODO EN EL SITIO (5 toques en el escudo)
+    // Sin recrear la Activity: todo lo que depende del modo se repinta
+    // en el mismo fotograma, sin volver a leer ni reconstruir la lista
+    // ============================================================
+    public static void aplicarModoDesarrollador(Activity activity) {
+        int diaActual = AlmacenEstado.obtener(activity).actual().getDiaActual();
+        mostrarTextoModoDesarrollador(activity, diaActual);   // franja, botones dev y métricas
+        actualizarColoresModoDesarrollador(activity);         // cabecera, tintes y escudo
+        MonitorFotogramas.actualizar(activity);               // empieza o deja de observar fotogramas
     }
 
 
@@ -99,8 +308,7 @@ public class ManejadorVistas {
     // - modo dev: rosaDesarrollador
     // ============================================================
     public static void actualizarColoresModoDesarrollador(Activity activity) {
-        SharedPreferences prefs = activity.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-        boolean modoDev = prefs.getBoolean("modoDesarrollador", false);
+        boolean modoDev = AlmacenEstado.obtener(activity).actual().isModoDesarrollador();
 
         // Cabecera
         LinearLayout cabecera = activity.findViewById(R.id.cabecera);
@@ -140,10 +348,20 @@ public class ManejadorVistas {
 
         if (botonAvanzar != null) {
             botonAvanzar.setOnClickListener(v -> Controlador.avanzarDiaComun(activity));
+            // Pulsación larga: saltar a un día o avanzar varios pasos de golpe
+            botonAvanzar.setOnLongClickListener(v -> {
+                Controlador.mostrarDialogoSalto(activity);
+                return true;
+            });
         }
 
         if (botonReiniciar != null) {
             botonReiniciar.setOnClickListener(v -> Controlador.reiniciarSimulacionComun(activity));
+            // Pulsación larga: cambiar de historia (paquete de escenario)
+            botonReiniciar.setOnLongClickListener(v -> {
+                Controlador.mostrarSelectorPaquetes(activity);
+                return true;
+            });
         }
 
         if (textoCerrarSesion != null) {
@@ -152,18 +370,36 @@ public class ManejadorVistas {
     }
 
 
+    // ============================================================
+    // CAMPO DE BÚSQUEDA (historial y guías)
+    // Avisa con el texto en cada pulsación
+    // ============================================================
+    public static void configurarBusqueda(Activity activity, Consumer<String> alCambiar) {
+        EditText campoBusqueda = activity.findViewById(R.id.campoBusqueda);
+        if (campoBusqueda == null) return;
+
+        campoBusqueda.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence texto, int inicio, int antes, int despues) {}
+            @Override public void onTextChanged(CharSequence texto, int inicio, int antes, int despues) {}
+
+            @Override
+            public void afterTextChanged(Editable texto) {
+                alCambiar.accept(texto.toString());
+            }
+        });
+    }
+
+
     // ============================================================
     // CERRAR SESIÓN (vuelve al login y limpia preferencias)
     // ============================================================
     public static void cerrarSesion(Activity activity) {
-        SharedPreferences prefs = activity.getSharedPreferences("configuracion", Context.MODE_PRIVATE);
-        SharedPreferences.Editor editor = prefs.edit();
-        editor.clear();
-        editor.apply();
+        Preferencias.cerrarSesion(activity);
 
+        // Cierra también las secciones que se conservaban abiertas
         Intent intent = new Intent(activity, LoginActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
         activity.startActivity(intent);
-        activity.finish();
     }
 
 
@@ -183,9 +419,7 @@ public class ManejadorVistas {
             botonInicio.setOnClickListener(v -> {
                 // evitar reabrir la misma Activity
                 if (!(activity instanceof VistaPrincipal)) {
-                    Intent i = new Intent(activity, VistaPrincipal.class);
-                    activity.startActivity(i);
-                    activity.finish();
+                    irASeccion(activity, VistaPrincipal.class);
                 }
             });
         }
@@ -194,9 +428,7 @@ public class ManejadorVistas {
         if (botonGuia != null) {
             botonGuia.setOnClickListener(v -> {
                 if (!(activity instanceof VistaGuia)) {
-                    Intent i = new Intent(activity, VistaGuia.class);
-                    activity.startActivity(i);
-                    activity.finish();
+                    irASeccion(activity, VistaGuia.class);
                 }
             });
         }
@@ -205,9 +437,7 @@ public class ManejadorVistas {
         if (botonHistorial != null) {
             botonHistorial.setOnClickListener(v -> {
                 if (!(activity instanceof VistaHistorial)) {
-                    Intent i = new Intent(activity, VistaHistorial.class);
-                    activity.startActivity(i);
-                    activity.finish();
+                    irASeccion(activity, VistaHistorial.class);
                 }
             });
         }
@@ -216,9 +446,7 @@ public class ManejadorVistas {
         if (botonServicios != null) {
             botonServicios.setOnClickListener(v -> {
                 if (!(activity instanceof VistaServicios)) {
-                    Intent i = new Intent(activity, VistaServicios.class);
-                    activity.startActivity(i);
-                    activity.finish();
+                    irASeccion(activity, VistaServicios.class);
                 }
             });
         }
@@ -227,6 +455,18 @@ public class ManejadorVistas {
         marcarSeccionActual(activity, botonInicio, botonGuia, botonHistorial, botonServicios);
     }
 
+    // Las cuatro secciones se conservan vivas en la tarea: si ya existe, se trae al frente
+    // tal cual (mismo layout, misma lista, mismo scroll); si no, se crea una vez.
+    // Sin finish(): volver a una pestaña no infla, no configura ni lee nada.
+    // A cambio ocupan memoria aunque no se vean: ver recortarSecciones()
+    private static void irASeccion(Activity activity, Class<? extends Activity> seccion) {
+        MonitorFotogramas.marcarAccion(MonitorFotogramas.PESTANA);
+        Intent intent = new Intent(activity, seccion);
+        intent.addFlags(Intent.FLAG_ACTIVITY_REORDER_TO_FRONT);
+        activity.startActivity(intent);
+        activity.overridePendingTransition(0, 0);   // cambio de pestaña instantáneo, sin animación
+    }
+
 
     // ============================================================
     // VISUAL: MARCAR QUÉ PANTALLA ESTÁ ACTIVA EN EL MENÚ INFERIOR
@@ -351,6 +591,10 @@ public class ManejadorVistas {
  *     - Lee `modoDesarrollador` de las preferencias.
  *     - Si está activo → muestra el `TextView` y actualiza el texto con el día actual.
  *     - Si no está activo → oculta el componente (`setVisibility(GONE)`).
+ *     - Debajo, `@id/textoMetricas` muestra en vivo p50/p99 y contadores
+ *       de `Metricas` y los fotogramas lentos por pantalla (`MonitorFotogramas`),
+ *       cada segundo mientras la pantalla se ve (de onStart a onStop).
+ *       Tocar → CSV; pulsación larga → borrar.
  *
  *   ➤ Interacción:
  *     - Llamada automáticamente al iniciar la vista.
@@ -372,7 +616,9 @@ public class ManejadorVistas {
  *
  *   ➤ Interacción:
  *     - Llamado desde `configurarElementosComunes()` y `Controlador.avanzarDiaComun()`.
- *     - Se ejecuta cada vez que se activa o desactiva el modo desarrollador.
+ *     - Se ejecuta cada vez que se activa o desactiva el modo desarrollador,
+ *       junto con `mostrarTextoModoDesarrollador()`, desde `aplicarModoDesarrollador()`:
+ *       el cambio se pinta en el sitio, sin recrear la pantalla.
  *
  * ------------------------------------------------------------
  * 🧠 Flujo de uso en conjunto con otras clases
@@ -381,8 +627,8 @@ public class ManejadorVistas {
  * - `VistaPrincipal`, `VistaGuia`, `VistaHistorial` → llaman a `configurarElementosComunes()`
  *     para que todo se pinte igual en cada pantalla.
  *
- * - `Controlador` → usa `actualizarCabecera()` y `mostrarTextoModoDesarrollador()`
- *     tras avanzar de día o reiniciar.
+ * - `AlmacenEstado` → avisa de cada cambio (`CambioEstado`); la cabecera de cada
+ *     pantalla repinta solo la fecha, la franja, los colores o el saludo si cambiaron.
  *
  * - `Preferencias` → provee la información (usuario, modo dev, día actual)
  *     que `ManejadorVistas` muestra visualmente.
@@ -399,7 +645,20 @@ public class ManejadorVistas {
  *
  *   🟢 Modo desarrollador:
  *      - Franja amarilla o verde.
- *      - Botones “AVANZAR DÍA” y “REINICIAR DÍAS”.
+ *      - Botones “AVANZAR DÍA” y “REINICIAR DÍAS” (pulsación y pulsación larga),
+ *        conectados solo aquí, en `configurarBotonesCabecera()`.
+ *
+ *   🧭 Menú inferior:
+ *      - Las cuatro secciones se abren una vez y se conservan: cada pestaña
+ *        trae al frente la que ya existe (`FLAG_ACTIVITY_REORDER_TO_FRONT`),
+ *        con su lista y su scroll, sin volver a crearla.
+ *      - Las secciones que no se ven siguen suscritas a `AlmacenEstado`:
+ *        al volver a ellas ya están al día.
+ *      - Con poca memoria (`onTrimMemory` desde RUNNING_LOW) se cierran las
+ *        ocultas salvo Principal y la última vista, y se vacía `ReservaTarjetas`.
+ *
+ *   🔎 Búsqueda (historial y guías):
+ *      - `configurarBusqueda()` avisa a la pantalla con el texto en cada pulsación.
  *
  * ------------------------------------------------------------
  * 💡 En resumen:
@@ -0,0 +1,161 @@
+package com.example.apocalipsisgranada.vista;
+
+import android.content.Context;
+import android.os.Looper;
+import android.util.AttributeSet;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.apocalipsisgranada.R;
+import com.google.android.material.textview.MaterialTextView;
+
+import java.util.ArrayList;
+
+public class ReservaTarjetas {
+
+    private static final float ALTO_MINIMO_TARJETA_DP = 70f;   // una línea de texto + fecha + márgenes
+    private static final int TARJETAS_EXTRA = 2;               // las que asoman al empezar el scroll
+    private static final int TARJETAS_SISTEMA = 1;             // mensaje del día 0 o aviso de búsqueda
+
+    // Compartidas por Principal, Guía e Historial (solo hilo principal)
+    private static RecyclerView.RecycledViewPool reserva;
+    private static int tarjetasPorPantalla;       // tamaño de `reserva`, calculado al crearla
+    private static LayoutInflater inflador;       // aplicación + tema + vistas Material: ninguna tarjeta retiene una pantalla
+    private static AdaptadorMensajes fabrica;     // crea tarjetas ya con su estilo, fuera de cualquier lista
+    private static RecyclerView padreFicticio;    // solo para inflar con los LayoutParams de RecyclerView
+    private static boolean calentando = false;
+
+    // ============================================================
+    // RESERVA COMPARTIDA (tamaño: una pantalla de tarjetas por tipo)
+    // ============================================================
+    public static RecyclerView.RecycledViewPool obtener(Context context) {
+        if (reserva == null) {
+            float altoDp = context.getResources().getDisplayMetrics().heightPixels
+                    / context.getResources().getDisplayMetrics().density;
+            tarjetasPorPantalla = (int) Math.ceil(altoDp / ALTO_MINIMO_TARJETA_DP) + TARJETAS_EXTRA;
+
+            reserva = new RecyclerView.RecycledViewPool();
+            reserva.setMaxRecycledViews(AdaptadorMensajes.TIPO_ALERTA, tarjetasPorPantalla);
+            reserva.setMaxRecycledViews(AdaptadorMensajes.TIPO_GUIA, tarjetasPorPantalla);
+            reserva.setMaxRecycledViews(AdaptadorMensajes.TIPO_SISTEMA_ALERTA, TARJETAS_SISTEMA);
+            reserva.setMaxRecycledViews(AdaptadorMensajes.TIPO_SISTEMA_GUIA, TARJETAS_SISTEMA);
+        }
+        return reserva;
+    }
+
+    /**
+     * Inflador de todas las tarjetas: como pasan de una pantalla a otra, no pueden depender
+     * de la Activity que las creó. Usa el contexto de la aplicación con el tema de la app y
+     * crea las mismas clases que el inflador de la pantalla (ver `vistaComoEnPantalla`).
+     */
+    static LayoutInflater inflador(Context context) {
+        if (inflador == null) {
+            Context conTema = new ContextThemeWrapper(context.getApplicationContext(), R.style.Theme_ApocalipsisGranada);
+            inflador = LayoutInflater.from(context.getApplicationContext()).cloneInContext(conTema);
+            inflador.setFactory2(vistaComoEnPantalla);
+        }
+        return inflador;
+    }
+
+    // El tema de la app es MaterialComponents: en una pantalla AppCompat le pasa cada etiqueta a
+    // MaterialComponentsViewInflater, que cambia TextView por MaterialTextView. item_mensajes solo
+    // tiene LinearLayout (se deja igual) y TextView, así que esto basta para que salgan idénticas
+    private static final LayoutInflater.Factory2 vistaComoEnPantalla = new LayoutInflater.Factory2() {
+        @Override
+        public View onCreateView(View padre, String nombre, Context context, AttributeSet atributos) {
+            return "TextView".equals(nombre) ? new MaterialTextView(context, atributos) : null;
+        }
+
+        @Override
+        public View onCreateView(String nombre, Context context, AttributeSet atributos) {
+            return onCreateView(null, nombre, context, atributos);
+        }
+    };
+
+    /**
+     * Suelta las tarjetas guardadas (poca memoria); se vuelven a inflar según hagan falta.
+     */
+    static void vaciar() {
+        if (reserva != null) reserva.clear();
+    }
+
+    /**
+     * Cambió la configuración (modo noche, giro, tamaño de letra): las tarjetas ya hechas, el
+     * tema del inflador y el tamaño de la reserva son de la anterior. Las pantallas recreadas
+     * piden una reserva nueva; las que se cierran devuelven sus tarjetas a la vieja.
+     */
+    static void alCambiarConfiguracion() {
+        vaciar();
+        reserva = null;
+        inflador = null;
+        fabrica = null;
+        padreFicticio = null;
+    }
+
+    // ============================================================
+    // PRECALENTAR (cuando el hilo principal se quede libre)
+    // Una tarjeta por cada hueco libre, hasta llenar la reserva; así la
+    // siguiente pantalla de mensajes no infla nada en su primer fotograma
+    // ============================================================
+    public static void precalentar(Context context) {
+        obtener(context);
+        if (calentando) return;
+        calentando = true;
+
+        Context aplicacion = context.getApplicationContext();   // el IdleHandler no retiene la pantalla
+        Looper.myQueue().addIdleHandler(() -> {
+            RecyclerView.RecycledViewPool pool = obtener(aplicacion);   // la actual, aunque haya cambiado la configuración
+            int tipo = tipoQueFalta(pool);
+            if (tipo < 0) {
+                calentando = false;
+                return false;   // reserva llena: fin hasta la próxima pantalla
+            }
+            if (fabrica == null) {
+                Context conTema = inflador(aplicacion).getContext();
+                fabrica = new AdaptadorMensajes(new ArrayList<>(), conTema);
+                padreFicticio = new RecyclerView(conTema);
+            }
+            pool.putRecycledView(fabrica.createViewHolder(padreFicticio, tipo));
+            return true;        // seguir en el próximo hueco libre
+        });
+    }
+
+    private static int tipoQueFalta(RecyclerView.RecycledViewPool pool) {
+        if (pool.getRecycledViewCount(AdaptadorMensajes.TIPO_ALERTA) < tarjetasPorPantalla) return AdaptadorMensajes.TIPO_ALERTA;
+        if (pool.getRecycledViewCount(AdaptadorMensajes.TIPO_GUIA) < tarjetasPorPantalla) return AdaptadorMensajes.TIPO_GUIA;
+        if (pool.getRecycledViewCount(AdaptadorMensajes.TIPO_SISTEMA_ALERTA) < TARJETAS_SISTEMA) return AdaptadorMensajes.TIPO_SISTEMA_ALERTA;
+        if (pool.getRecycledViewCount(AdaptadorMensajes.TIPO_SISTEMA_GUIA) < TARJETAS_SISTEMA) return AdaptadorMensajes.TIPO_SISTEMA_GUIA;
+        return -1;
+    }
+}
+
+/**
+ * ============================================================
+ * 🃏 Clase: ReservaTarjetas.java
+ * ============================================================
+ *
+ * Una sola **reserva de tarjetas** (`RecycledViewPool`) para las tres
+ * pantallas con mensajes: Principal, Guía e Historial.
+ *
+ * ------------------------------------------------------------
+ * ⚙️ Funcionamiento
+ * ------------------------------------------------------------
+ *
+ *  - `obtener()` → la reserva compartida, con sitio para una pantalla de
+ *    tarjetas de alerta y otra de guía (según el alto del dispositivo).
+ *  - `precalentar()` → en los huecos libres del hilo principal infla una
+ *    tarjeta cada vez hasta llenarla. Se llama al abrir cada pantalla con
+ *    lista, así que la siguiente ya encuentra sus tarjetas hechas.
+ *  - Todas las tarjetas se inflan con `inflador()`: contexto de la aplicación,
+ *    tema de la app y las mismas vistas Material que pondría la pantalla
+ *    (TextView → MaterialTextView). Pueden pasar de una pantalla a otra sin
+ *    retener ninguna Activity y se ven igual que si las inflara ella.
+ *  - El estilo de cada tipo lo pone `AdaptadorMensajes` al crearlas.
+ *  - `vaciar()` → con poca memoria la deja vacía (`ManejadorVistas`);
+ *    `alCambiarConfiguracion()` además rehace el inflador.
+ *
+ * ============================================================
+ */
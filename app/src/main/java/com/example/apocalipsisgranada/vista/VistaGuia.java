@@ -1,7 +1,6 @@
 
 package com.example.apocalipsisgranada.vista;
 
-import android.content.SharedPreferences;
 import android.os.Bundle;
 
 import androidx.appcompat.app.AppCompatActivity;
@@ -9,24 +8,29 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.apocalipsisgranada.R;
+import com.example.apocalipsisgranada.controlador.AlmacenEstado;
 import com.example.apocalipsisgranada.controlador.Controlador;
+import com.example.apocalipsisgranada.controlador.GestorEscenario;
+import com.example.apocalipsisgranada.controlador.Precargador;
 
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.IndiceBusqueda;
+import com.example.apocalipsisgranada.modelo.ListaInvertida;
 import com.example.apocalipsisgranada.modelo.Mensaje;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-public class VistaGuia extends AppCompatActivity {
+public class VistaGuia extends AppCompatActivity implements Precargador.ConTextos {
 
-    private SharedPreferences prefs;
     private RecyclerView recyclerGuias;
-    private List<Mensaje> listaGuias = new ArrayList<>();
+    private AdaptadorMensajes adaptador;
+    private String consulta = "";   // texto del buscador ("" → lista completa)
+
+    private static final long ID_SIN_RESULTADOS = -5;    // id estable del aviso "sin resultados"
+    private static final long ID_BUSCANDO = -7;          // id estable del aviso "buscando…"
+    private static final long ID_MENSAJE_INICIAL = -2;   // id estable del mensaje fijo del día 0
 
     // ============================================================
     // CICLO DE VIDA
@@ -36,76 +40,112 @@ public class VistaGuia extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_guia);
 
-        prefs = getSharedPreferences("configuracion", MODE_PRIVATE);
         recyclerGuias = findViewById(R.id.recyclerGuia);
-        recyclerGuias.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager gestor = new LinearLayoutManager(this);
+        gestor.setRecycleChildrenOnDetach(true);   // al cerrar la pantalla sus tarjetas vuelven a la reserva
+        recyclerGuias.setLayoutManager(gestor);
+        recyclerGuias.setRecycledViewPool(ReservaTarjetas.obtener(this));   // compartida con las otras listas
+
+        // Un único adaptador; al avanzar o reiniciar solo se notifican las diferencias
+        adaptador = new AdaptadorMensajes(new ArrayList<>(), this);
+        recyclerGuias.setAdapter(adaptador);
+
+        // En tiempo libre se dejan tarjetas hechas para la siguiente lista que se abra
+        ReservaTarjetas.precalentar(this);
 
         // Configuración general
         Controlador.configurarModoDesarrolladorComun(this);
         ManejadorVistas.configurarElementosComunes(this);
 
-        // Cargar guías
-        cargarGuias();
+        // Cargar guías en cuanto el catálogo esté listo (se lee en segundo plano)
+        GestorEscenario.cargarEnSegundoPlano(this, catalogo -> {
+            if (!isDestroyed()) {
+                cargarGuias();
+                GestorEscenario.prepararBusqueda(catalogo, true);
+            }
+        });
+
+        // Buscar mientras se escribe
+        ManejadorVistas.configurarBusqueda(this, texto -> {
+            consulta = texto;
+            cargarGuias();
+        });
+
+        // Las guías solo dependen del día: avanzar dentro del mismo día no repinta nada.
+        // Sigue suscrita aunque no se vea (pestaña conservada): al volver ya está al día
+        AlmacenEstado.obtener(this).observar(this, cambio -> {
+            if (cambio.cambioDia()) cargarGuias();
+        });
     }
 
     // ============================================================
     // CARGA DE GUÍAS
     // ============================================================
     public void cargarGuias() {
-        listaGuias.clear();
-
-        try {
-            InputStream is = getAssets().open("guias.json");
-            byte[] buffer = new byte[is.available()];
-            is.read(buffer);
-            is.close();
-
-            String json = new String(buffer, StandardCharsets.UTF_8);
-            JSONArray array = new JSONArray(json);
-
-            int diaActual = prefs.getInt("diaActual", 1);
-
-            // Guía inicial fija (día 0)
-            listaGuias.add(new Mensaje(
-                    0,
-                    Controlador.obtenerFechaSimulada(prefs, 0),
-                    "Consejo inicial: Mantén la calma y sigue las instrucciones del Gobierno.",
-                    "false",
-                    "guia"
-            ));
-
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                int dia = obj.getInt("dia");
-                String texto = obj.getString("mensaje");
-                String sonido = obj.optString("sonido", "false");
-
-                if (dia <= diaActual) {
-                    listaGuias.add(new Mensaje(
-                            dia,
-                            Controlador.obtenerFechaSimulada(prefs, dia),
-                            texto,
-                            sonido,
-                            "guia"
-                    ));
-                }
+        int diaActual = AlmacenEstado.obtener(this).actual().getDiaActual();
+
+        // Guía inicial fija (día 0)
+        Mensaje inicial = new Mensaje(
+                0,
+                "",
+                "Consejo inicial: Mantén la calma y sigue las instrucciones del Gobierno.",
+                "false",
+                "guia"
+        );
+        inicial.setId(ID_MENSAJE_INICIAL);
+
+        // Guías desbloqueadas hasta el día actual, de más recientes a más antiguas y con el mensaje inicial al final.
+        // No se copian: el adaptador lee por páginas las que quedan cerca de lo visible
+        CatalogoEscenario catalogo = GestorEscenario.catalogoCargado(this);
+        if (catalogo == null) {
+            // Aún se está leyendo (historia recién cambiada): se carga al terminar, sin esperar aquí
+            GestorEscenario.cargarEnSegundoPlano(this, cargado -> {
+                if (!isDestroyed()) cargarGuias();
+            });
+            return;
+        }
+        List<Mensaje> desbloqueadas = catalogo.guiasHastaDia(diaActual);
+
+        if (!IndiceBusqueda.esVacia(consulta)) {
+            // Con búsqueda: solo las que encajan, entre las desbloqueadas (ya vienen de más reciente a más antigua)
+            // El índice se construye en segundo plano: hasta que esté, "buscando…" y se repite al terminar
+            IndiceBusqueda indice = catalogo.indiceGuiasListo();
+            if (indice == null) {
+                adaptador.mostrarPaginado(new FuentePaginada(Collections.emptyList(), buscando()));
+                GestorEscenario.prepararBusqueda(catalogo, true, () -> {
+                    if (!isDestroyed()) cargarGuias();
+                });
+                return;
             }
+            List<Mensaje> resultados = indice.buscar(consulta, desbloqueadas.size());
+            adaptador.mostrarPaginado(new FuentePaginada(resultados, resultados.isEmpty() ? sinResultados() : null));
+            return;
+        }
 
-            // Ordenar de más recientes a más antiguos
-            Collections.reverse(listaGuias);
+        adaptador.mostrarPaginado(new FuentePaginada(new ListaInvertida<>(desbloqueadas), inicial));
+    }
 
-            recyclerGuias.setAdapter(new AdaptadorMensajes(listaGuias, this));
+    private Mensaje buscando() {
+        Mensaje aviso = new Mensaje(0, "", "Buscando «" + consulta.trim() + "»…", "false", "guia");
+        aviso.setId(ID_BUSCANDO);
+        return aviso;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private Mensaje sinResultados() {
+        Mensaje aviso = new Mensaje(0, "", "Sin resultados para «" + consulta.trim() + "»", "false", "guia");
+        aviso.setId(ID_SIN_RESULTADOS);
+        return aviso;
     }
 
     // ============================================================
-    // ACTUALIZAR GUÍAS (AL AVANZAR DÍA)
+    // PRECALCULAR TEXTOS
+    // Precargador: medir ya el texto de la siguiente guía
     // ============================================================
-    public void actualizarGuias() {
-        cargarGuias();
+    @Override
+    public void precalcularTextos(List<Mensaje> siguientes) {
+        for (int i = 0; i < siguientes.size(); i++) {
+            if (siguientes.get(i).getTipo().equals("guia")) adaptador.precalcularTexto(siguientes.get(i));
+        }
     }
 }
 
@@ -127,12 +167,16 @@ public class VistaGuia extends AppCompatActivity {
  * 1️⃣ Carga el layout `activity_guia.xml`.
  * 2️⃣ Configura cabecera, menú inferior y modo desarrollador.
  * 3️⃣ Obtiene las guías del día actual desde `Controlador` y las muestra.
- * 4️⃣ Permite actualizar el contenido al avanzar de día.
+ * 4️⃣ Se vuelve a cargar sola cuando cambia el día (suscrita a `AlmacenEstado`).
+ * 5️⃣ Busca mientras se escribe (`IndiceBusqueda`, sin tildes ni emojis),
+ *     solo entre las guías ya desbloqueadas. Si el índice aún se está
+ *     construyendo, muestra “Buscando…” y repite la búsqueda al terminar.
  *
  * ------------------------------------------------------------
  * 🗂️ Elementos visuales destacados
  * ------------------------------------------------------------
  *
+ * - `@id/campoBusqueda` → buscador de guías.
  * - `@id/recyclerGuia` → lista de recomendaciones y protocolos diarios.
  * - `@id/textoModo` → indicador de modo desarrollador.
  * - `@layout/cabecera` → zona superior con saludo, fecha y escudo.
@@ -142,7 +186,8 @@ public class VistaGuia extends AppCompatActivity {
  * ------------------------------------------------------------
  *
  * 1️⃣ Al iniciar, se cargan las guías correspondientes al `diaActual`.
- * 2️⃣ Cada guía se muestra en el RecyclerView usando el `AdaptadorMensajes`.
+ * 2️⃣ Cada guía se muestra en el RecyclerView usando el `AdaptadorMensajes`,
+ *     que las lee por páginas (`FuentePaginada`) según el scroll.
  * 3️⃣ Si el modo desarrollador está activo, se actualiza visualmente la cabecera y colores.
  *
  * ------------------------------------------------------------
@@ -1,6 +1,5 @@
 package com.example.apocalipsisgranada.vista;
 
-import android.content.SharedPreferences;
 import android.os.Bundle;
 
 import androidx.appcompat.app.AppCompatActivity;
@@ -8,23 +7,28 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.apocalipsisgranada.R;
+import com.example.apocalipsisgranada.controlador.AlmacenEstado;
 import com.example.apocalipsisgranada.controlador.Controlador;
+import com.example.apocalipsisgranada.controlador.GestorEscenario;
+import com.example.apocalipsisgranada.controlador.Precargador;
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.IndiceBusqueda;
+import com.example.apocalipsisgranada.modelo.ListaInvertida;
 import com.example.apocalipsisgranada.modelo.Mensaje;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-public class VistaHistorial extends AppCompatActivity {
+public class VistaHistorial extends AppCompatActivity implements Precargador.ConTextos {
 
-    private SharedPreferences prefs;
     private RecyclerView recyclerHistorial;
-    private List<Mensaje> listaAlertas = new ArrayList<>();
+    private AdaptadorMensajes adaptador;
+    private String consulta = "";   // texto del buscador ("" → lista completa)
+
+    private static final long ID_SIN_RESULTADOS = -4;    // id estable del aviso "sin resultados"
+    private static final long ID_BUSCANDO = -6;          // id estable del aviso "buscando…"
+    private static final long ID_MENSAJE_INICIAL = -3;   // id estable del mensaje fijo del día 0
 
     // ============================================================
     // CICLO DE VIDA
@@ -34,77 +38,111 @@ public class VistaHistorial extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_historial);
 
-        prefs = getSharedPreferences("configuracion", MODE_PRIVATE);
         recyclerHistorial = findViewById(R.id.recyclerHistorial);
-        recyclerHistorial.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager gestor = new LinearLayoutManager(this);
+        gestor.setRecycleChildrenOnDetach(true);   // al cerrar la pantalla sus tarjetas vuelven a la reserva
+        recyclerHistorial.setLayoutManager(gestor);
+        recyclerHistorial.setRecycledViewPool(ReservaTarjetas.obtener(this));   // compartida con las otras listas
+
+        // Un único adaptador; al avanzar o reiniciar solo se notifican las diferencias
+        adaptador = new AdaptadorMensajes(new ArrayList<>(), this);
+        recyclerHistorial.setAdapter(adaptador);
+
+        // En tiempo libre se dejan tarjetas hechas para la siguiente lista que se abra
+        ReservaTarjetas.precalentar(this);
 
         // Configuración general
         Controlador.configurarModoDesarrolladorComun(this);
         ManejadorVistas.configurarElementosComunes(this);
 
-        // Cargar alertas
-        cargarAlertas();
+        // Cargar alertas en cuanto el catálogo esté listo (se lee en segundo plano)
+        GestorEscenario.cargarEnSegundoPlano(this, catalogo -> {
+            if (!isDestroyed()) {
+                cargarAlertas();
+                GestorEscenario.prepararBusqueda(catalogo, false);
+            }
+        });
+
+        // Buscar mientras se escribe
+        ManejadorVistas.configurarBusqueda(this, texto -> {
+            consulta = texto;
+            cargarAlertas();
+        });
+
+        // El historial solo cambia de un día a otro (o al reiniciar); sigue suscrito aunque no se vea
+        AlmacenEstado.obtener(this).observar(this, cambio -> {
+            if (cambio.cambioDia()) cargarAlertas();
+        });
     }
 
     // ============================================================
     // CARGAR ALERTAS
     // ============================================================
     public void cargarAlertas() {
-        listaAlertas.clear();
-
-        try {
-            InputStream is = getAssets().open("alertas.json");
-            byte[] buffer = new byte[is.available()];
-            is.read(buffer);
-            is.close();
-
-            String json = new String(buffer, StandardCharsets.UTF_8);
-            JSONArray array = new JSONArray(json);
-
-            int diaActual = prefs.getInt("diaActual", 1);
-
-            // Mensaje inicial del sistema
-            listaAlertas.add(new Mensaje(
-                    0,
-                    Controlador.obtenerFechaSimulada(prefs, 0),
-                    "Registro del Sistema de Alertas — Gobierno de España",
-                    "false",
-                    "alerta"
-            ));
-
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                int dia = obj.getInt("dia");
-                String texto = obj.getString("mensaje");
-                String sonido = obj.optString("sonido", "false");
-
-                // Solo mostrar alertas hasta el día actual
-                if (dia <= diaActual) {
-                    listaAlertas.add(new Mensaje(
-                            dia,
-                            Controlador.obtenerFechaSimulada(prefs, dia),
-                            texto,
-                            sonido,
-                            "alerta"
-                    ));
-                }
+        int diaActual = AlmacenEstado.obtener(this).actual().getDiaActual();
+
+        // Mensaje inicial del sistema
+        Mensaje inicial = new Mensaje(
+                0,
+                "",
+                "Registro del Sistema de Alertas — Gobierno de España",
+                "false",
+                "alerta"
+        );
+        inicial.setId(ID_MENSAJE_INICIAL);
+
+        // Solo mostrar alertas hasta el día actual, de más recientes a más antiguas y con el mensaje inicial al final.
+        // No se copian: el adaptador lee por páginas las que quedan cerca de lo visible
+        CatalogoEscenario catalogo = GestorEscenario.catalogoCargado(this);
+        if (catalogo == null) {
+            // Aún se está leyendo (historia recién cambiada): se carga al terminar, sin esperar aquí
+            GestorEscenario.cargarEnSegundoPlano(this, cargado -> {
+                if (!isDestroyed()) cargarAlertas();
+            });
+            return;
+        }
+        List<Mensaje> desbloqueadas = catalogo.alertasHastaDia(diaActual);
+
+        if (!IndiceBusqueda.esVacia(consulta)) {
+            // Con búsqueda: solo las que encajan, entre las desbloqueadas (ya vienen de más reciente a más antigua)
+            // El índice se construye en segundo plano: hasta que esté, "buscando…" y se repite al terminar
+            IndiceBusqueda indice = catalogo.indiceAlertasListo();
+            if (indice == null) {
+                adaptador.mostrarPaginado(new FuentePaginada(Collections.emptyList(), buscando()));
+                GestorEscenario.prepararBusqueda(catalogo, false, () -> {
+                    if (!isDestroyed()) cargarAlertas();
+                });
+                return;
             }
+            List<Mensaje> resultados = indice.buscar(consulta, desbloqueadas.size());
+            adaptador.mostrarPaginado(new FuentePaginada(resultados, resultados.isEmpty() ? sinResultados() : null));
+            return;
+        }
 
-            // Ordenar de más recientes a más antiguas
-            Collections.reverse(listaAlertas);
+        adaptador.mostrarPaginado(new FuentePaginada(new ListaInvertida<>(desbloqueadas), inicial));
+    }
 
-            recyclerHistorial.setAdapter(new AdaptadorMensajes(listaAlertas, this));
+    private Mensaje buscando() {
+        Mensaje aviso = new Mensaje(0, "", "Buscando «" + consulta.trim() + "»…", "false", "alerta");
+        aviso.setId(ID_BUSCANDO);
+        return aviso;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    private Mensaje sinResultados() {
+        Mensaje aviso = new Mensaje(0, "", "Sin resultados para «" + consulta.trim() + "»", "false", "alerta");
+        aviso.setId(ID_SIN_RESULTADOS);
+        return aviso;
     }
 
     // ============================================================
-    // ACTUALIZAR HISTORIAL (AL AVANZAR DÍA)
+    // PRECALCULAR TEXTOS
+    // Precargador: medir ya el texto de la siguiente alerta
     // ============================================================
-    public void actualizarHistorial() {
-        cargarAlertas();
+    @Override
+    public void precalcularTextos(List<Mensaje> siguientes) {
+        for (int i = 0; i < siguientes.size(); i++) {
+            if (siguientes.get(i).getTipo().equals("alerta")) adaptador.precalcularTexto(siguientes.get(i));
+        }
     }
 }
 
@@ -129,12 +167,16 @@ public class VistaHistorial extends AppCompatActivity {
  * 3️⃣ Utiliza un `RecyclerView` con el `AdaptadorMensajes` para mostrar los mensajes.
  * 4️⃣ Llama al `Controlador` para cargar todos los pares de mensajes anteriores
  *     (alertas + guías) desde los JSON del modelo.
- * 5️⃣ Actualiza la lista cuando el usuario avanza o reinicia el día.
+ * 5️⃣ Actualiza la lista cuando cambia el día o se reinicia (suscrita a `AlmacenEstado`).
+ * 6️⃣ Busca mientras se escribe (`IndiceBusqueda`, sin tildes ni emojis),
+ *     solo entre las alertas ya desbloqueadas. Si el índice aún se está
+ *     construyendo, muestra “Buscando…” y repite la búsqueda al terminar.
  *
  * ------------------------------------------------------------
  * 🗂️ Elementos visuales destacados
  * ------------------------------------------------------------
  *
+ * - `@id/campoBusqueda` → buscador de alertas.
  * - `@id/recyclerHistorial` → lista cronológica descendente de mensajes antiguos.
  * - `@layout/cabecera` → reutilizada en la parte superior.
  * - `@id/textoModo` → muestra el texto “🧪 Modo desarrollador — Día X” si procede.
@@ -144,7 +186,8 @@ public class VistaHistorial extends AppCompatActivity {
  * ------------------------------------------------------------
  *
  * 1️⃣ Al abrir la pantalla, se leen el `diaActual` y los mensajes pasados.
- * 2️⃣ Se construye una lista unificada de todos los mensajes anteriores.
+ * 2️⃣ Las alertas desbloqueadas se leen por páginas (`FuentePaginada`):
+ *     solo están en memoria las cercanas a lo que se ve en pantalla.
  * 3️⃣ Se muestran en el RecyclerView ordenados por día.
  * 4️⃣ El menú inferior permite volver a la vista principal o navegar a otras secciones.
  *
@@ -1,7 +1,6 @@
 package com.example.apocalipsisgranada.vista;
 
 import android.Manifest;
-import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
@@ -15,27 +14,37 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.apocalipsisgranada.R;
+import com.example.apocalipsisgranada.controlador.AlmacenEstado;
 import com.example.apocalipsisgranada.controlador.Controlador;
+import com.example.apocalipsisgranada.controlador.EstadoSimulacion;
+import com.example.apocalipsisgranada.controlador.GestorEscenario;
+import com.example.apocalipsisgranada.controlador.Metricas;
+import com.example.apocalipsisgranada.controlador.Precargador;
+import com.example.apocalipsisgranada.controlador.MotorSonido;
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.ListaInvertida;
 import com.example.apocalipsisgranada.modelo.Mensaje;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-public class VistaPrincipal extends AppCompatActivity {
+public class VistaPrincipal extends AppCompatActivity implements Precargador.ConTextos {
 
-    private SharedPreferences preferencias;
+    private AlmacenEstado almacen;
     private RecyclerView recyclerMensajes;
-    private List<Mensaje> alertas = new ArrayList<>();
-    private List<Mensaje> guias = new ArrayList<>();
-    private List<Mensaje> mostrados = new ArrayList<>();
+    private CatalogoEscenario catalogo;
+    private AdaptadorMensajes adaptador;
 
     private static final int PERMISO_NOTIFICACION = 100;
+    private static final int MENSAJES_POR_TANDA = 200;   // mensajes añadidos por fotograma al rellenar días anteriores
+    private static final long ID_MENSAJE_INICIAL = -1;   // id estable del mensaje fijo del día 0
+    private int cargaActual = 0;                          // cambia en cada recarga para descartar tandas antiguas
+
+    // Lo que hay ahora mismo en pantalla (para insertar solo lo nuevo al avanzar)
+    private int diaMostrado = 0;
+    private int indiceMostrado = -1;
+    private boolean diasAnterioresCompletos = false;
+    private boolean esperandoCatalogo = false;
 
 
     @Override
@@ -43,37 +52,47 @@ public class VistaPrincipal extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_principal);
 
-        preferencias = getSharedPreferences("configuracion", MODE_PRIVATE);
+        almacen = AlmacenEstado.obtener(this);
         recyclerMensajes = findViewById(R.id.recyclerPrincipal);
-        recyclerMensajes.setLayoutManager(new LinearLayoutManager(this));
+        LinearLayoutManager gestor = new LinearLayoutManager(this);
+        gestor.setRecycleChildrenOnDetach(true);   // al cerrar la pantalla sus tarjetas vuelven a la reserva
+        recyclerMensajes.setLayoutManager(gestor);
+        recyclerMensajes.setRecycledViewPool(ReservaTarjetas.obtener(this));   // compartida con las otras listas
+
+        // Un único adaptador para toda la vida de la pantalla; se actualiza por incrementos
+        adaptador = new AdaptadorMensajes(new ArrayList<>(), this);
+        recyclerMensajes.setAdapter(adaptador);
+
+        // En tiempo libre se dejan tarjetas hechas para la siguiente lista que se abra
+        ReservaTarjetas.precalentar(this);
 
         configurarPrimerArranque();
         comprobarPermisoNotificaciones();
+        MotorSonido.iniciar(this);
 
         // Configuración común
         Controlador.configurarModoDesarrolladorComun(this);
         ManejadorVistas.configurarElementosComunes(this);
 
-        // Carga inicial de archivos
-        cargarArchivo("alertas.json", "alerta", alertas);
-        cargarArchivo("guias.json", "guia", guias);
-
-        // Mostrar los mensajes del día actual
+        // Catálogo compartido de alertas y guías: se lee en segundo plano y,
+        // cuando está listo, se muestran los mensajes del día actual
         mostrarMensajesIniciales();
+
+        // Cada avance trae su delta: solo se insertan los pares nuevos.
+        // Un reinicio (o cambio de historia) obliga a pintar la lista desde cero
+        almacen.observar(this, cambio -> {
+            if (cambio.esReinicio()) diasAnterioresCompletos = false;
+            if (cambio.cambioPosicion()) mostrarMensajesIniciales();
+        });
     }
 
     // ============================================================
     // CONFIGURACIÓN INICIAL
     // ============================================================
     private void configurarPrimerArranque() {
-        boolean primeraVez = preferencias.getBoolean("primer_arranque", true);
-        if (primeraVez) {
-            SharedPreferences.Editor editor = preferencias.edit();
-            editor.putBoolean("primer_arranque", false);
-            editor.putLong("fechaInicio", System.currentTimeMillis());
-            editor.putInt("diaActual", 1);
-            editor.putInt("indiceMensajeDia", 0);
-            editor.apply();
+        if (almacen.actual().isPrimerArranque()) {
+            long ahora = System.currentTimeMillis();
+            almacen.actualizar(e -> e.conPrimerArranque(false).conFechaInicio(ahora).conPosicion(1, 0));
         }
     }
 
@@ -101,103 +120,120 @@ public class VistaPrincipal extends AppCompatActivity {
 
     // ============================================================
     // MOSTRAR MENSAJES
+    // - avance normal: solo se insertan arriba los pares nuevos
+    // - reinicio o primera carga: día actual ya, días anteriores por tandas
     // ============================================================
     public void mostrarMensajesIniciales() {
-        mostrados.clear();
-
-        int diaActual = preferencias.getInt("diaActual", 1);
-        int indice = preferencias.getInt("indiceMensajeDia", 0);
-
-        // Mensaje inicial fijo (día 0)
-        mostrados.add(new Mensaje(0,
-                Controlador.obtenerFechaSimulada(preferencias, 0),
-                "Sistema de Alertas del Gobierno de España — Modo activo",
-                "false",
-                "alerta"));
-
-        // Cargar todos los días anteriores
-        for (int d = 1; d < diaActual; d++) {
-            List<List<Mensaje>> paresAnteriores = obtenerAmbosMensajesDelDia(d);
-            for (int i = 0; i < paresAnteriores.size(); i++) {
-                List<Mensaje> par = paresAnteriores.get(i);
-                mostrados.addAll(par);
+        long inicio = Metricas.empezar(Metricas.MOSTRAR_MENSAJES);
+        try {
+            EstadoSimulacion estado = almacen.actual();
+            int diaActual = estado.getDiaActual();
+            int indice = estado.getIndiceMensajeDia();
+
+            // El catálogo de ahora (se pudo cambiar de paquete). Si aún se está leyendo,
+            // no se espera aquí: se vuelve a pintar cuando termine la carga
+            CatalogoEscenario listo = GestorEscenario.catalogoCargado(this);
+            if (listo == null) {
+                esperarCatalogo();
+                return;
             }
+            catalogo = listo;
 
-        }
+            boolean esAvance = diasAnterioresCompletos
+                    && (diaActual > diaMostrado || (diaActual == diaMostrado && indice > indiceMostrado));
 
-        // Cargar mensajes del día actual (según índice)
-        List<List<Mensaje>> paresHoy = obtenerAmbosMensajesDelDia(diaActual);
-        for (int i = 0; i <= indice && i < paresHoy.size(); i++) {
-            mostrados.addAll(paresHoy.get(i));
-        }
+            if (esAvance) {
+                // 1️⃣ Solo los pares recién desbloqueados, arriba del todo
+                LinearLayoutManager gestor = (LinearLayoutManager) recyclerMensajes.getLayoutManager();
+                boolean estabaArriba = gestor.findFirstVisibleItemPosition() <= 0;
+
+                adaptador.insertarAlInicio(mensajesEntre(diaMostrado, indiceMostrado, diaActual, indice));
+                if (estabaArriba) recyclerMensajes.scrollToPosition(0);
+            } else {
+                // 2️⃣ Lista desde cero: primero el día actual (es lo que se ve arriba)...
+                diasAnterioresCompletos = false;
+                adaptador.actualizarLista(mensajesEntre(diaActual, -1, diaActual, indice));
+
+                // ...y después los días anteriores por tandas, sin bloquear la pantalla
+                int carga = ++cargaActual;
+                int pendientes = catalogo.finDePares(diaActual - 1, Integer.MAX_VALUE);
+                recyclerMensajes.post(() -> anadirDiasAnteriores(carga, pendientes));
+            }
 
-        // Ordenar de más nuevo a más antiguo
-        Collections.reverse(mostrados);
+            diaMostrado = diaActual;
+            indiceMostrado = indice;
+        } finally {
+            Metricas.terminar(Metricas.MOSTRAR_MENSAJES, inicio);
+        }
+    }
 
-        recyclerMensajes.setAdapter(new AdaptadorMensajes(mostrados, this));
-        ManejadorVistas.actualizarCabecera(this, Controlador.obtenerFechaSimulada(preferencias, diaActual));
+    private void esperarCatalogo() {
+        if (esperandoCatalogo) return;
+        esperandoCatalogo = true;
+        GestorEscenario.cargarEnSegundoPlano(this, cargado -> {
+            esperandoCatalogo = false;
+            if (!isDestroyed()) mostrarMensajesIniciales();
+        });
     }
 
     // ============================================================
-    // OBTENER PARES ALERTA + GUÍA DE UN DÍA
+    // AÑADIR DÍAS ANTERIORES (de más nuevo a más antiguo, por tandas)
+    // `hasta` es la posición en la secuencia de pares donde acaba lo pendiente
     // ============================================================
-    private List<List<Mensaje>> obtenerAmbosMensajesDelDia(int dia) {
-        List<Mensaje> alertasDia = new ArrayList<>();
-        List<Mensaje> guiasDia = new ArrayList<>();
-        List<List<Mensaje>> pares = new ArrayList<>();
-
-        // Buscar alertas del día
-        for (int i = 0; i < alertas.size(); i++) {
-            Mensaje a = alertas.get(i);
-            if (a.getDia() == dia) alertasDia.add(a);
+    private void anadirDiasAnteriores(int carga, int hasta) {
+        // Si entretanto se reinició o recargó, esta tanda ya no vale
+        if (carga != cargaActual || isDestroyed()) return;
+
+        int desde = Math.max(0, hasta - MENSAJES_POR_TANDA);
+        List<Mensaje> tanda = new ArrayList<>(mensajesEntre(desde, hasta));
+
+        if (desde == 0) {
+            // Mensaje inicial fijo (día 0), siempre el último de la lista
+            Mensaje inicial = new Mensaje(0,
+                    "",
+                    "Sistema de Alertas del Gobierno de España — Modo activo",
+                    "false",
+                    "alerta");
+            inicial.setId(ID_MENSAJE_INICIAL);
+            tanda.add(inicial);
         }
 
-        // Buscar guías del día
-        for (int i = 0; i < guias.size(); i++) {
-            Mensaje g = guias.get(i);
-            if (g.getDia() == dia) guiasDia.add(g);
-        }
+        adaptador.anadirAlFinal(tanda);
 
-        int total = Math.max(alertasDia.size(), guiasDia.size());
-        for (int i = 0; i < total; i++) {
-            List<Mensaje> par = new ArrayList<>();
-            if (i < alertasDia.size()) par.add(alertasDia.get(i));
-            if (i < guiasDia.size()) par.add(guiasDia.get(i));
-            pares.add(par);
+        if (desde > 0) {
+            recyclerMensajes.post(() -> anadirDiasAnteriores(carga, desde));
+        } else {
+            diasAnterioresCompletos = true;
         }
-        return pares;
     }
 
     // ============================================================
-    // CARGAR ARCHIVOS JSON
+    // MENSAJES ENTRE DOS POSICIONES (de más nuevo a más antiguo)
+    // Pares posteriores a (diaDesde, indiceDesde) hasta (diaHasta, indiceHasta) incluido
     // ============================================================
-    private void cargarArchivo(String archivo, String tipo, List<Mensaje> destino) {
-        try {
-            InputStream is = getAssets().open(archivo);
-            byte[] buffer = new byte[is.available()];
-            is.read(buffer);
-            is.close();
-
-            String json = new String(buffer, StandardCharsets.UTF_8);
-            JSONArray array = new JSONArray(json);
-
-            destino.clear();
-
-            for (int i = 0; i < array.length(); i++) {
-                JSONObject obj = array.getJSONObject(i);
-                int dia = obj.getInt("dia");
-                String texto = obj.getString("mensaje");
-                String sonido = obj.optString("sonido", "false");
-                String fecha = Controlador.obtenerFechaSimulada(preferencias, dia);
-                destino.add(new Mensaje(dia, fecha, texto, sonido, tipo));
-            }
+    private List<Mensaje> mensajesEntre(int diaDesde, int indiceDesde, int diaHasta, int indiceHasta) {
+        return mensajesEntre(catalogo.finDePares(diaDesde, indiceDesde), catalogo.finDePares(diaHasta, indiceHasta));
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    // Tramo [desde, hasta) de la secuencia de pares del catálogo, sin copiar mensajes
+    private List<Mensaje> mensajesEntre(int desde, int hasta) {
+        if (desde >= hasta) return new ArrayList<>();
+        return new ListaInvertida<>(catalogo.paresHasta(catalogo.getUltimoDia(), Integer.MAX_VALUE).subList(desde, hasta));
+    }
+
+    // ============================================================
+    // PRECALCULAR TEXTOS
+    // Precargador: medir ya el texto del siguiente par (alerta + guía)
+    // ============================================================
+    @Override
+    public void precalcularTextos(List<Mensaje> siguientes) {
+        for (int i = 0; i < siguientes.size(); i++) {
+            adaptador.precalcularTexto(siguientes.get(i));
         }
     }
 }
 
+
 /**
  * ============================================================
  * 🏛️ Clase: VistaPrincipal.java
@@ -223,8 +259,11 @@ public class VistaPrincipal extends AppCompatActivity {
  *
  * 2️⃣ **Gestión de mensajes**
  *     - Utiliza un `RecyclerView` con un `AdaptadorMensajes` personalizado.
- *     - Carga los datos desde los archivos JSON (`alertas.json` y `guias.json`).
+ *     - Obtiene los datos del `CatalogoEscenario` compartido (`alertas.json` y `guias.json`
+ *       se leen una sola vez por proceso en `GestorEscenario`).
  *     - Muestra los mensajes combinados (alerta + guía) de cada día.
+ *       Los pares de todos los días forman un único tramo en el catálogo:
+ *       “lo nuevo desde el último avance” es un `subList` invertido, sin recorrer días.
  *     - Reacciona al avance de día actualizando el contenido mostrado.
  *
  * 3️⃣ **Integración con el Controlador**
@@ -267,11 +306,14 @@ public class VistaPrincipal extends AppCompatActivity {
  *  1️⃣ Al iniciar la app, se carga VistaPrincipal.
  *  2️⃣ Se lee el usuario y día actual desde SharedPreferences.
  *  3️⃣ Se configuran cabecera, menú inferior y modo desarrollador.
- *  4️⃣ Se obtienen las alertas y guías del día mediante el Controlador.
- *  5️⃣ Se muestran en el RecyclerView.
+ *  4️⃣ El catálogo de alertas y guías se lee en segundo plano (`GestorEscenario`).
+ *  5️⃣ Al estar listo, se pinta primero el día actual y después,
+ *     por tandas, los días anteriores.
  *  6️⃣ Al pulsar “Avanzar día”:
- *      - El Controlador incrementa el día o el índice.
- *      - Se actualizan mensajes, sonidos y notificaciones.
+ *      - El Controlador incrementa el día o el índice en `AlmacenEstado`.
+ *      - La pantalla, suscrita al estado, recibe el `CambioEstado` y solo
+ *        inserta arriba los mensajes nuevos (el adaptador se conserva).
+ *      - Se actualizan sonidos y notificaciones.
  *  7️⃣ Si se alcanza el día 14 a las 23:00 → se activa la linterna SOS.
  *
  * ------------------------------------------------------------
@@ -0,0 +1,52 @@
+package com.example.apocalipsisgranada.controlador;
+
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Resumen por día de DespachadorNotificaciones: ninguna alerta agrupada se queda sin resumen.
+ */
+public class DespachadorNotificacionesTest {
+
+    private static Mensaje alerta(int dia, String texto) {
+        return new Mensaje(dia, "", texto, "false", "alerta");
+    }
+
+    @Test
+    public void una_rafaga_que_cruza_de_dia_publica_antes_el_resumen_del_dia_anterior() {
+        DespachadorNotificaciones.ResumenDia resumen = new DespachadorNotificaciones.ResumenDia();
+        List<String> cerrados = new ArrayList<>();
+        DespachadorNotificaciones.ResumenDia.AlCerrarDia alCerrar =
+                (dia, lineas) -> cerrados.add(dia + ":" + String.join("|", lineas));
+
+        // Una sola ráfaga: dos alertas del día 1 y una del día 2
+        resumen.anadir(alerta(1, "a"), alCerrar);
+        resumen.anadir(alerta(1, "b"), alCerrar);
+        resumen.anadir(alerta(2, "c"), alCerrar);
+        resumen.marcarPublicado();
+
+        assertEquals(Arrays.asList("1:a|b"), cerrados);
+        assertEquals(2, resumen.getDia());
+        assertEquals(Arrays.asList("c"), resumen.getLineas());
+    }
+
+    @Test
+    public void un_dia_ya_publicado_no_se_vuelve_a_publicar_al_cambiar_de_dia() {
+        DespachadorNotificaciones.ResumenDia resumen = new DespachadorNotificaciones.ResumenDia();
+        List<Integer> cerrados = new ArrayList<>();
+
+        resumen.anadir(alerta(1, "a"), (dia, lineas) -> cerrados.add(dia));
+        resumen.marcarPublicado();
+        resumen.anadir(alerta(2, "b"), (dia, lineas) -> cerrados.add(dia));
+
+        assertTrue(cerrados.isEmpty());
+        assertEquals(Arrays.asList("b"), resumen.getLineas());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.apocalipsisgranada.controlador;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Percentiles de Metricas.Serie: rango más cercano y anillo con las últimas medidas.
+ */
+public class MetricasTest {
+
+    @Test
+    public void percentiles_por_rango_mas_cercano() {
+        Metricas.Serie serie = new Metricas.Serie(1024);
+        for (int i = 100; i >= 1; i--) serie.anotar(i);   // desordenadas a propósito
+
+        assertArrayEquals(new long[]{50, 90, 99, 100}, serie.percentiles(0.50, 0.90, 0.99, 1.0));
+        assertEquals(100, serie.getTotal());
+    }
+
+    @Test
+    public void el_anillo_solo_conserva_las_ultimas_medidas() {
+        Metricas.Serie serie = new Metricas.Serie(10);
+        for (int i = 1; i <= 25; i++) serie.anotar(i * 1000L);
+
+        // Quedan 16..25: las lentas de antes ya no cuentan, pero el total sí
+        assertArrayEquals(new long[]{16_000, 20_000, 25_000}, serie.percentiles(0.0, 0.50, 0.99));
+        assertEquals(25, serie.getTotal());
+    }
+
+    @Test
+    public void sin_medidas_devuelve_ceros() {
+        assertArrayEquals(new long[]{0, 0}, new Metricas.Serie(8).percentiles(0.50, 0.99));
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.apocalipsisgranada.controlador;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reglas de MotorSimulacion en la JVM, sin Android.
+ */
+public class MotorSimulacionTest {
+
+    private static final int HORA_NORMAL = 12;
+
+    // Escenario con las alertas por día indicadas (día 1 = posición 0)
+    private static CatalogoEscenario escenario(int... alertasPorDia) {
+        List<Mensaje> alertas = new ArrayList<>();
+        List<Mensaje> guias = new ArrayList<>();
+        for (int d = 0; d < alertasPorDia.length; d++) {
+            for (int i = 0; i < alertasPorDia[d]; i++) {
+                alertas.add(new Mensaje(d + 1, "", "alerta " + (d + 1) + "." + i, "alert", "alerta"));
+                guias.add(new Mensaje(d + 1, "", "guia " + (d + 1) + "." + i, "false", "guia"));
+            }
+        }
+        return new CatalogoEscenario(alertas, guias);
+    }
+
+    private static List<MotorSimulacion.Comando> deTipo(List<MotorSimulacion.Comando> comandos,
+                                                        MotorSimulacion.Comando.Tipo tipo) {
+        List<MotorSimulacion.Comando> filtrados = new ArrayList<>();
+        for (MotorSimulacion.Comando c : comandos) if (c.getTipo() == tipo) filtrados.add(c);
+        return filtrados;
+    }
+
+    @Test
+    public void avanza_dentro_del_dia_y_pasa_al_siguiente() {
+        MotorSimulacion motor = new MotorSimulacion(escenario(2, 1));
+
+        EstadoSimulacion e = EstadoSimulacion.INICIAL;
+        e = motor.siguiente(e);
+        assertEquals(1, e.getDiaActual());
+        assertEquals(1, e.getIndiceMensajeDia());
+
+        e = motor.siguiente(e);
+        assertEquals(2, e.getDiaActual());
+        assertEquals(0, e.getIndiceMensajeDia());
+    }
+
+    @Test
+    public void dia_sin_alertas_se_salta_de_uno_en_uno() {
+        MotorSimulacion motor = new MotorSimulacion(escenario(1, 0, 1));
+
+        EstadoSimulacion e = motor.siguiente(EstadoSimulacion.INICIAL);
+        assertEquals(2, e.getDiaActual());
+        assertTrue(motor.efectos(e, HORA_NORMAL).isEmpty());
+
+        e = motor.siguiente(e);
+        assertEquals(3, e.getDiaActual());
+        assertEquals(0, e.getIndiceMensajeDia());
+    }
+
+    @Test
+    public void la_alerta_que_toca_suena_y_se_notifica() {
+        MotorSimulacion motor = new MotorSimulacion(escenario(3));
+
+        MotorSimulacion.Paso paso = motor.avanzar(EstadoSimulacion.INICIAL, HORA_NORMAL);
+        List<MotorSimulacion.Comando> comandos = paso.getComandos();
+
+        assertEquals(2, comandos.size());
+        assertEquals(MotorSimulacion.Comando.Tipo.SONIDO, comandos.get(0).getTipo());
+        assertEquals(MotorSimulacion.Comando.Tipo.NOTIFICAR, comandos.get(1).getTipo());
+        assertEquals("alerta 1.1", comandos.get(1).getMensaje().getTexto());
+        assertEquals(1, comandos.get(1).getIndice());
+    }
+
+    @Test
+    public void sos_solo_al_final_del_dia_14_a_las_23() {
+        int[] dias = new int[MotorSimulacion.DIA_SOS];
+        Arrays.fill(dias, 2);
+        MotorSimulacion motor = new MotorSimulacion(escenario(dias));
+
+        EstadoSimulacion ultimaDel14 = EstadoSimulacion.INICIAL.conPosicion(MotorSimulacion.DIA_SOS, 1);
+        EstadoSimulacion primeraDel14 = EstadoSimulacion.INICIAL.conPosicion(MotorSimulacion.DIA_SOS, 0);
+
+        List<MotorSimulacion.Comando> linterna =
+                deTipo(motor.efectos(ultimaDel14, MotorSimulacion.HORA_SOS), MotorSimulacion.Comando.Tipo.LINTERNA);
+        assertEquals(1, linterna.size());
+        assertEquals(MotorSimulacion.TEXTO_SOS, linterna.get(0).getTexto());
+
+        assertTrue(deTipo(motor.efectos(ultimaDel14, HORA_NORMAL), MotorSimulacion.Comando.Tipo.LINTERNA).isEmpty());
+        assertTrue(deTipo(motor.efectos(primeraDel14, MotorSimulacion.HORA_SOS), MotorSimulacion.Comando.Tipo.LINTERNA).isEmpty());
+    }
+
+    @Test
+    public void recorrer_el_escenario_entero_notifica_cada_alerta_una_vez_y_en_orden() {
+        CatalogoEscenario catalogo = escenario(3, 0, 5, 1, 0, 0, 4);
+        MotorSimulacion motor = new MotorSimulacion(catalogo);
+
+        // La primera alerta (día 1, índice 0) ya se ve al empezar; el resto llega avanzando
+        List<Mensaje> esperadas = catalogo.alertasHastaDia(catalogo.getUltimoDia());
+        List<Mensaje> notificadas = new ArrayList<>();
+        notificadas.add(catalogo.alertasDelDia(1).get(0));
+
+        EstadoSimulacion e = EstadoSimulacion.INICIAL;
+        while (e.getDiaActual() <= catalogo.getUltimoDia()) {
+            MotorSimulacion.Paso paso = motor.avanzar(e, HORA_NORMAL);
+            for (MotorSimulacion.Comando c : deTipo(paso.getComandos(), MotorSimulacion.Comando.Tipo.NOTIFICAR)) {
+                notificadas.add(c.getMensaje());
+            }
+            e = paso.getEstado();
+        }
+
+        assertEquals(esperadas, notificadas);
+    }
+
+    @Test
+    public void escenarios_aleatorios_mantienen_el_estado_valido() {
+        Random azar = new Random(42);
+        for (int ronda = 0; ronda < 200; ronda++) {
+            int[] dias = new int[1 + azar.nextInt(30)];
+            for (int d = 0; d < dias.length; d++) dias[d] = azar.nextInt(6);
+            CatalogoEscenario catalogo = escenario(dias);
+            MotorSimulacion motor = new MotorSimulacion(catalogo);
+
+            EstadoSimulacion e = EstadoSimulacion.INICIAL;
+            for (int paso = 0; paso < 200; paso++) {
+                EstadoSimulacion anterior = e;
+                e = motor.avanzar(e, azar.nextInt(24)).getEstado();
+
+                // Siempre hacia delante: o el siguiente índice del día o el día siguiente desde 0
+                boolean mismoDia = e.getDiaActual() == anterior.getDiaActual()
+                        && e.getIndiceMensajeDia() == anterior.getIndiceMensajeDia() + 1;
+                boolean diaSiguiente = e.getDiaActual() == anterior.getDiaActual() + 1
+                        && e.getIndiceMensajeDia() == 0;
+                assertTrue(mismoDia || diaSiguiente);
+                assertTrue(e.getIndiceMensajeDia() < Math.max(1, catalogo.contarAlertasDelDia(e.getDiaActual())));
+            }
+        }
+    }
+
+    @Test
+    public void avanzar_varios_pasos_equivale_a_avanzar_uno_a_uno() {
+        Random azar = new Random(7);
+        for (int ronda = 0; ronda < 100; ronda++) {
+            int[] dias = new int[1 + azar.nextInt(20)];
+            for (int d = 0; d < dias.length; d++) dias[d] = azar.nextInt(5);
+            MotorSimulacion motor = new MotorSimulacion(escenario(dias));
+
+            EstadoSimulacion inicio = EstadoSimulacion.INICIAL.conPosicion(1 + azar.nextInt(dias.length), 0);
+            int pasos = azar.nextInt(80);
+
+            EstadoSimulacion unoAUno = inicio;
+            for (int i = 0; i < pasos; i++) unoAUno = motor.siguiente(unoAUno);
+            EstadoSimulacion deGolpe = motor.posicionTrasPasos(inicio, pasos);
+
+            assertEquals(unoAUno.getDiaActual(), deGolpe.getDiaActual());
+            assertEquals(unoAUno.getIndiceMensajeDia(), deGolpe.getIndiceMensajeDia());
+        }
+    }
+
+    @Test
+    public void saltar_suprimiendo_solo_avisa_de_la_alerta_final() {
+        MotorSimulacion motor = new MotorSimulacion(escenario(3, 2, 4));
+
+        MotorSimulacion.Paso paso = motor.saltarADia(EstadoSimulacion.INICIAL, 3, HORA_NORMAL,
+                MotorSimulacion.Intermedias.SUPRIMIR);
+
+        assertEquals(3, paso.getEstado().getDiaActual());
+        assertEquals(0, paso.getEstado().getIndiceMensajeDia());
+        List<MotorSimulacion.Comando> notificar = deTipo(paso.getComandos(), MotorSimulacion.Comando.Tipo.NOTIFICAR);
+        assertEquals(1, notificar.size());
+        assertEquals("alerta 3.0", notificar.get(0).getMensaje().getTexto());
+        assertTrue(deTipo(paso.getComandos(), MotorSimulacion.Comando.Tipo.RESUMEN).isEmpty());
+    }
+
+    @Test
+    public void saltar_agrupando_resume_las_alertas_del_camino() {
+        CatalogoEscenario catalogo = escenario(3, 2, 4);
+        MotorSimulacion motor = new MotorSimulacion(catalogo);
+
+        // De (1, 1) a (3, 2): se saltan 1.2, 2.0, 2.1, 3.0 y 3.1
+        EstadoSimulacion desde = EstadoSimulacion.INICIAL.conPosicion(1, 1);
+        MotorSimulacion.Paso paso = motor.avanzarVarios(desde, 6, HORA_NORMAL, MotorSimulacion.Intermedias.AGRUPAR);
+
+        assertEquals(3, paso.getEstado().getDiaActual());
+        assertEquals(2, paso.getEstado().getIndiceMensajeDia());
+
+        List<MotorSimulacion.Comando> resumen = deTipo(paso.getComandos(), MotorSimulacion.Comando.Tipo.RESUMEN);
+        assertEquals(1, resumen.size());
+        List<String> textos = new ArrayList<>();
+        for (Mensaje m : resumen.get(0).getMensajes()) textos.add(m.getTexto());
+        assertEquals(Arrays.asList("alerta 1.2", "alerta 2.0", "alerta 2.1", "alerta 3.0", "alerta 3.1"), textos);
+    }
+
+    @Test
+    public void reiniciar_vuelve_al_dia_1_y_conserva_usuario() {
+        EstadoSimulacion e = EstadoSimulacion.INICIAL
+                .conNombreUsuario("Ana")
+                .conPosicion(9, 2);
+
+        EstadoSimulacion reiniciado = MotorSimulacion.reiniciar(e, true, 1234L);
+
+        assertEquals(1, reiniciado.getDiaActual());
+        assertEquals(0, reiniciado.getIndiceMensajeDia());
+        assertEquals(1234L, reiniciado.getFechaInicio());
+        assertEquals("Ana", reiniciado.getNombreUsuario());
+        assertTrue(reiniciado.isModoDesarrollador());
+        assertFalse(reiniciado.isPrimerArranque());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.apocalipsisgranada.modelo;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Búsqueda de IndiceBusqueda: tildes, prefijos, varias palabras y límite por día.
+ */
+public class IndiceBusquedaTest {
+
+    private static List<Mensaje> mensajes(String... textos) {
+        List<Mensaje> lista = new ArrayList<>();
+        for (int i = 0; i < textos.length; i++) lista.add(new Mensaje(i + 1, "", textos[i], "false", "alerta"));
+        return lista;
+    }
+
+    private static List<String> textos(List<Mensaje> resultados) {
+        List<String> lista = new ArrayList<>();
+        for (Mensaje m : resultados) lista.add(m.getTexto());
+        return lista;
+    }
+
+    private final List<Mensaje> escenario = mensajes(
+            "🚨 Evacuación inmediata en Granada",
+            "Cortes de agua en el Albaicín",
+            "ESPAÑA declara el estado de alarma",
+            "Niños y mayores: evacuación prioritaria 👶",
+            "Pingüinos avistados en la Alhambra");
+
+    @Test
+    public void ignora_tildes_mayusculas_y_enie() {
+        IndiceBusqueda indice = new IndiceBusqueda(escenario);
+
+        assertEquals(Arrays.asList("ESPAÑA declara el estado de alarma"), textos(indice.buscar("espana", 5)));
+        assertEquals(Arrays.asList("ESPAÑA declara el estado de alarma"), textos(indice.buscar("España", 5)));
+        assertEquals(Arrays.asList("Pingüinos avistados en la Alhambra"), textos(indice.buscar("PINGUINOS", 5)));
+        assertEquals(Arrays.asList("Niños y mayores: evacuación prioritaria 👶"), textos(indice.buscar("ninos", 5)));
+    }
+
+    @Test
+    public void busca_por_prefijo_y_devuelve_de_mas_reciente_a_mas_antiguo() {
+        IndiceBusqueda indice = new IndiceBusqueda(escenario);
+
+        assertEquals(Arrays.asList(
+                "Niños y mayores: evacuación prioritaria 👶",
+                "🚨 Evacuación inmediata en Granada"), textos(indice.buscar("evac", 5)));
+        assertEquals(Arrays.asList(
+                "Pingüinos avistados en la Alhambra",
+                "ESPAÑA declara el estado de alarma",
+                "Cortes de agua en el Albaicín"), textos(indice.buscar("al", 5)));
+    }
+
+    @Test
+    public void varias_palabras_tienen_que_aparecer_todas() {
+        IndiceBusqueda indice = new IndiceBusqueda(escenario);
+
+        assertEquals(Arrays.asList("🚨 Evacuación inmediata en Granada"), textos(indice.buscar("evacuacion gran", 5)));
+        assertTrue(indice.buscar("evacuacion alhambra", 5).isEmpty());
+    }
+
+    @Test
+    public void solo_busca_entre_los_desbloqueados() {
+        IndiceBusqueda indice = new IndiceBusqueda(escenario);
+
+        assertEquals(Arrays.asList("🚨 Evacuación inmediata en Granada"), textos(indice.buscar("evacuacion", 3)));
+        assertTrue(indice.buscar("pinguinos", 4).isEmpty());
+        assertTrue(indice.buscar("evacuacion", 0).isEmpty());
+    }
+
+    @Test
+    public void emojis_y_signos_no_cuentan_como_palabras() {
+        IndiceBusqueda indice = new IndiceBusqueda(escenario);
+
+        assertTrue(IndiceBusqueda.esVacia("🚨 👶 !!"));
+        assertTrue(IndiceBusqueda.esVacia("   "));
+        assertFalse(IndiceBusqueda.esVacia("🚨 agua"));
+        assertEquals(Arrays.asList("Cortes de agua en el Albaicín"), textos(indice.buscar("🚨 agua", 5)));
+    }
+
+    @Test
+    public void coincide_con_una_busqueda_lineal_en_un_escenario_grande() {
+        String[] palabras = {"alerta", "agua", "évacuación", "Granada", "niños", "refugio", "zona", "🚨", "sector"};
+        List<Mensaje> grande = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            String texto = palabras[i % palabras.length] + " " + palabras[(i * 7) % palabras.length] + " " + i;
+            grande.add(new Mensaje(1 + i / 3, "", texto, "false", "alerta"));
+        }
+        IndiceBusqueda indice = new IndiceBusqueda(grande);
+
+        for (String consulta : new String[]{"gra", "evacuacion refu", "ninos", "12", "zona sector"}) {
+            int limite = 3777;
+            List<String> esperado = new ArrayList<>();
+            for (int i = limite - 1; i >= 0; i--) {
+                if (contieneTodas(grande.get(i).getTexto(), consulta)) esperado.add(grande.get(i).getTexto());
+            }
+            assertEquals(consulta, esperado, textos(indice.buscar(consulta, limite)));
+        }
+    }
+
+    // Búsqueda lenta de referencia: cada palabra de la consulta es prefijo de alguna palabra del texto
+    private static boolean contieneTodas(String texto, String consulta) {
+        List<String> palabrasTexto = new ArrayList<>();
+        IndiceBusqueda.trocear(IndiceBusqueda.normalizar(texto), palabrasTexto);
+        List<String> prefijos = new ArrayList<>();
+        IndiceBusqueda.trocear(IndiceBusqueda.normalizar(consulta), prefijos);
+
+        for (String prefijo : prefijos) {
+            boolean encontrada = false;
+            for (String palabra : palabrasTexto) encontrada |= palabra.startsWith(prefijo);
+            if (!encontrada) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.IndiceBusqueda;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda del historial: una pulsación (consulta + primera pantalla de resultados)
+ * con todo desbloqueado, y lo que cuesta construir el índice una vez.
+ * Una pulsación tiene que caber de sobra en un fotograma (16 ms).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BusquedaBenchmark {
+
+    @Param({"10000", "100000"})
+    public int mensajes;
+
+    // Los textos sintéticos son "alerta N": de casi todo a nada
+    @Param({"a", "alerta 1", "99", "nada"})
+    public String consulta;
+
+    private CatalogoEscenario catalogo;
+    private IndiceBusqueda indice;
+
+    @Setup
+    public void preparar() {
+        catalogo = EscenarioSintetico.catalogo(mensajes);
+        indice = catalogo.indiceAlertas();
+    }
+
+    @Benchmark
+    public long pulsacion() {
+        List<Mensaje> resultados = indice.buscar(consulta, mensajes);
+        long suma = resultados.size();
+        for (int i = 0; i < 20 && i < resultados.size(); i++) suma += resultados.get(i).getId();
+        return suma;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IndiceBusqueda construirIndice() {
+        return new IndiceBusqueda(catalogo.alertasHastaDia(catalogo.getUltimoDia()));
+    }
+}
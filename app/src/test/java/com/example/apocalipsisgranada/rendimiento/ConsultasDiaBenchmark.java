@@ -0,0 +1,75 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.ListaInvertida;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas por día tal como las hacen Controlador y VistaPrincipal:
+ * contar las alertas de un día (avance) y recorrer los pares alerta + guía
+ * de un día o de todo lo desbloqueado (antes obtenerAmbosMensajesDelDia).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConsultasDiaBenchmark {
+
+    @Param({"10000", "100000"})
+    public int mensajes;
+
+    private CatalogoEscenario catalogo;
+    private int dias;
+    private int dia;
+
+    @Setup
+    public void preparar() {
+        catalogo = EscenarioSintetico.catalogo(mensajes);
+        dias = catalogo.getUltimoDia();
+    }
+
+    private int siguienteDia() {
+        dia = dia % dias + 1;
+        return dia;
+    }
+
+    // Controlador.contarMensajesDelDia → avanzarDiaComun
+    @Benchmark
+    public int contarAlertasDelDia() {
+        return catalogo.contarAlertasDelDia(siguienteDia());
+    }
+
+    // Pares de un día, de más nuevo a más antiguo (lo que añade un avance a VistaPrincipal)
+    @Benchmark
+    public long paresDelDia() {
+        int d = siguienteDia();
+        int desde = catalogo.finDePares(d, -1);
+        int hasta = catalogo.finDePares(d, Integer.MAX_VALUE);
+        List<Mensaje> pares = new ListaInvertida<>(catalogo.paresHasta(d, Integer.MAX_VALUE).subList(desde, hasta));
+
+        long suma = 0;
+        for (int i = 0; i < pares.size(); i++) suma += pares.get(i).getId();
+        return suma;
+    }
+
+    // Primera pantalla de VistaPrincipal con todo desbloqueado: los 50 pares más recientes
+    @Benchmark
+    public long primeraPantallaTodoDesbloqueado() {
+        List<Mensaje> todos = new ListaInvertida<>(catalogo.paresHasta(dias, Integer.MAX_VALUE));
+
+        long suma = 0;
+        for (int i = 0; i < 50 && i < todos.size(); i++) suma += todos.get(i).getId();
+        return suma;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Lanza los benchmarks JMH de este paquete.
+ *
+ * No se ejecuta con los tests normales: hay que pedirlo con
+ *   ./gradlew :app:testDebugUnitTest -Pbenchmarks=true --tests '*EjecutarBenchmarksTest'
+ * (opcional: -Pbenchmarks.filtro=FechaSimulada para lanzar solo algunos).
+ *
+ * Cada ejecución deja un JSON en app/build/benchmarks/ con tiempos y,
+ * gracias al perfilador de GC, bytes asignados por operación (gc.alloc.rate.norm),
+ * para poder comparar resultados entre commits.
+ */
+public class EjecutarBenchmarksTest {
+
+    @Test
+    public void ejecutarBenchmarks() throws Exception {
+        Assume.assumeTrue("Benchmarks desactivados (usa -Pbenchmarks=true)", Boolean.getBoolean("benchmarks"));
+
+        // El worker de Gradle no expone el classpath de los tests en java.class.path,
+        // que es lo que usa JMH para lanzar las JVM de cada benchmark
+        String classpath = System.getProperty("benchmarks.classpath");
+        if (classpath != null && !classpath.isEmpty()) System.setProperty("java.class.path", classpath);
+
+        File salida = new File(System.getProperty("benchmarks.salida", "build/benchmarks"));
+        salida.mkdirs();
+        String marca = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.ROOT).format(new Date());
+        String filtro = System.getProperty("benchmarks.filtro", "");
+
+        Options opciones = new OptionsBuilder()
+                .include(EjecutarBenchmarksTest.class.getPackage().getName() + ".*" + filtro)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(salida, "jmh-" + marca + ".json").getPath())
+                .build();
+
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escenarios de prueba para los benchmarks: los JSON reales de /assets
+ * o escenarios generados con el número de mensajes que se pida.
+ */
+final class EscenarioSintetico {
+
+    static final String ASSETS = "assets";          // valor de @Param para usar los JSON reales
+    static final int MENSAJES_POR_DIA = 3;
+
+    private static final String[] SONIDOS = {
+            "false", "alert", "alarm_short", "gremlin_risa", "alien_risa", "sonido_raro", "siren_warning", "true"
+    };
+
+    private EscenarioSintetico() {}
+
+    // ============================================================
+    // JSON (mismo formato que alertas.json / guias.json)
+    // ============================================================
+    static byte[] json(String escenario, String archivo) throws IOException {
+        if (ASSETS.equals(escenario)) {
+            // Los tests de JVM se ejecutan desde el directorio del módulo app
+            return Files.readAllBytes(Paths.get("src", "main", "assets", archivo));
+        }
+        return generarJson(Integer.parseInt(escenario));
+    }
+
+    static byte[] generarJson(int mensajes) {
+        StringBuilder json = new StringBuilder(mensajes * 160);
+        json.append("[\n");
+        for (int i = 0; i < mensajes; i++) {
+            if (i > 0) json.append(",\n");
+            json.append("  {\"dia\": ").append(1 + i / MENSAJES_POR_DIA)
+                    .append(", \"hora\": \"").append(8 + i % 12).append(":").append(i % 6).append("0\"")
+                    .append(", \"mensaje\": \"Aviso número ").append(i)
+                    .append(": permanezcan en sus domicilios y sigan las indicaciones de Protección Civil. Núm. ")
+                    .append(i * 7).append("\"")
+                    .append(", \"sonido\": \"").append(SONIDOS[i % SONIDOS.length]).append("\"}");
+        }
+        json.append("\n]\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ============================================================
+    // CATÁLOGO EN MEMORIA (alertas y guías con el mismo reparto por días)
+    // ============================================================
+    static CatalogoEscenario catalogo(int mensajes) {
+        return new CatalogoEscenario(mensajes(mensajes, "alerta"), mensajes(mensajes, "guia"));
+    }
+
+    static List<Mensaje> mensajes(int total, String tipo) {
+        List<Mensaje> lista = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            lista.add(new Mensaje(1 + i / MENSAJES_POR_DIA, "", tipo + " " + i, SONIDOS[i % SONIDOS.length], tipo));
+        }
+        return lista;
+    }
+}
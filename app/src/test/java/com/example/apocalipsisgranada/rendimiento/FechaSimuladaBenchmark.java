@@ -0,0 +1,48 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import com.example.apocalipsisgranada.controlador.EtiquetasFecha;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fecha simulada de cada tarjeta (Controlador.obtenerFechaSimulada):
+ * la caché por día de EtiquetasFecha frente a formatear en cada llamada,
+ * que es lo que se hacía antes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FechaSimuladaBenchmark {
+
+    private static final long FECHA_INICIO = 1761523200000L;   // 27/10/2025
+    private static final int DIAS = 365;
+
+    private int dia;
+
+    private int siguienteDia() {
+        dia = dia % DIAS + 1;
+        return dia;
+    }
+
+    @Benchmark
+    public String etiquetaEnCache() {
+        return EtiquetasFecha.etiqueta(FECHA_INICIO, siguienteDia());
+    }
+
+    @Benchmark
+    public String formatearCadaVez() {
+        long fechaSimulada = FECHA_INICIO + (long) (siguienteDia() - 1) * 24 * 60 * 60 * 1000;
+        SimpleDateFormat formato = new SimpleDateFormat("EEEE, d 'de' MMMM 'de' yyyy", new Locale("es", "ES"));
+        return formato.format(new Date(fechaSimulada));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import com.example.apocalipsisgranada.controlador.LectorEscenario;
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura del escenario: parseo en streaming de los JSON (reales y sintéticos)
+ * y construcción del catálogo indexado por día.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LecturaEscenarioBenchmark {
+
+    @Param({EscenarioSintetico.ASSETS, "10000", "100000"})
+    public String escenario;
+
+    private byte[] alertas;
+    private byte[] guias;
+    private List<Mensaje> alertasLeidas;
+    private List<Mensaje> guiasLeidas;
+
+    @Setup
+    public void preparar() throws IOException {
+        alertas = EscenarioSintetico.json(escenario, "alertas.json");
+        guias = EscenarioSintetico.json(escenario, "guias.json");
+        alertasLeidas = leer(alertas, "alerta");
+        guiasLeidas = leer(guias, "guia");
+    }
+
+    @Benchmark
+    public void parsearJson(Blackhole agujero) throws IOException {
+        LectorEscenario.leer(new ByteArrayInputStream(alertas), "alerta", agujero::consume);
+        LectorEscenario.leer(new ByteArrayInputStream(guias), "guia", agujero::consume);
+    }
+
+    @Benchmark
+    public CatalogoEscenario construirCatalogo() {
+        return new CatalogoEscenario(alertasLeidas, guiasLeidas);
+    }
+
+    private static List<Mensaje> leer(byte[] json, String tipo) throws IOException {
+        List<Mensaje> mensajes = new ArrayList<>();
+        LectorEscenario.leer(new ByteArrayInputStream(json), tipo, mensajes::add);
+        return mensajes;
+    }
+}
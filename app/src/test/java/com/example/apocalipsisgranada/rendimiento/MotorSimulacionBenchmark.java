@@ -0,0 +1,60 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import com.example.apocalipsisgranada.controlador.EstadoSimulacion;
+import com.example.apocalipsisgranada.controlador.MotorSimulacion;
+import com.example.apocalipsisgranada.modelo.CatalogoEscenario;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pasos por segundo de MotorSimulacion: solo el cambio de estado y el paso
+ * completo con sus comandos. Al llegar al final del escenario se reinicia.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MotorSimulacionBenchmark {
+
+    @Param({"10000", "100000"})
+    public int mensajes;
+
+    private MotorSimulacion motor;
+    private int ultimoDia;
+    private EstadoSimulacion estado;
+
+    @Setup
+    public void preparar() {
+        CatalogoEscenario catalogo = EscenarioSintetico.catalogo(mensajes);
+        motor = new MotorSimulacion(catalogo);
+        ultimoDia = catalogo.getUltimoDia();
+        estado = EstadoSimulacion.INICIAL;
+    }
+
+    private void volverAlPrincipioSiTermino() {
+        if (estado.getDiaActual() > ultimoDia) estado = MotorSimulacion.reiniciar(estado, false, 0);
+    }
+
+    @Benchmark
+    public EstadoSimulacion soloEstado() {
+        estado = motor.siguiente(estado);
+        volverAlPrincipioSiTermino();
+        return estado;
+    }
+
+    @Benchmark
+    public int pasoConComandos() {
+        MotorSimulacion.Paso paso = motor.avanzar(estado, 12);
+        estado = paso.getEstado();
+        volverAlPrincipioSiTermino();
+        return paso.getComandos().size();
+    }
+}
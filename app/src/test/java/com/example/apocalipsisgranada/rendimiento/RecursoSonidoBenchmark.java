@@ -0,0 +1,38 @@
+package com.example.apocalipsisgranada.rendimiento;
+
+import com.example.apocalipsisgranada.modelo.Mensaje;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mensaje.obtenerRecursoSonido() sobre mensajes con todos los sonidos del escenario.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecursoSonidoBenchmark {
+
+    private Mensaje[] mensajes;
+    private int posicion;
+
+    @Setup
+    public void preparar() {
+        List<Mensaje> lista = EscenarioSintetico.mensajes(64, "alerta");
+        mensajes = lista.toArray(new Mensaje[0]);
+    }
+
+    @Benchmark
+    public int obtenerRecursoSonido() {
+        posicion = (posicion + 1) & (mensajes.length - 1);
+        return mensajes[posicion].obtenerRecursoSonido();
+    }
+}